@@ -0,0 +1,78 @@
+package com.zy.demo.benchmark;
+
+import java.util.Random;
+
+/**
+ * 基准测试的数据分布
+ * @author zy
+ */
+public enum Distribution {
+
+    //随机数据
+    RANDOM {
+        @Override
+        int[] generate(int size,Random random){
+            int[] arr = new int[size];
+            for(int i = 0 ; i < size ; i++){
+                arr[i] = random.nextInt();
+            }
+            return arr;
+        }
+    },
+
+    //升序数据
+    SORTED {
+        @Override
+        int[] generate(int size,Random random){
+            int[] arr = new int[size];
+            for(int i = 0 ; i < size ; i++){
+                arr[i] = i;
+            }
+            return arr;
+        }
+    },
+
+    //降序数据
+    REVERSED {
+        @Override
+        int[] generate(int size,Random random){
+            int[] arr = new int[size];
+            for(int i = 0 ; i < size ; i++){
+                arr[i] = size - i;
+            }
+            return arr;
+        }
+    },
+
+    //大量重复数据(只有16个不同取值)
+    FEW_UNIQUE {
+        @Override
+        int[] generate(int size,Random random){
+            int[] arr = new int[size];
+            for(int i = 0 ; i < size ; i++){
+                arr[i] = random.nextInt(16);
+            }
+            return arr;
+        }
+    };
+
+    //固定随机种子，保证每次运行的数据一致
+    static final long SEED = 20200801L;
+
+    /**
+     * 生成指定分布的数组
+     * @param size 数组长度
+     * @param random 随机数生成器
+     * @return 数组
+     */
+    abstract int[] generate(int size,Random random);
+
+    /**
+     * 使用固定随机种子生成指定分布的数组
+     * @param size 数组长度
+     * @return 数组
+     */
+    int[] generate(int size){
+        return generate(size,new Random(SEED));
+    }
+}
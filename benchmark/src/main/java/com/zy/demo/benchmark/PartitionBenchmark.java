@@ -0,0 +1,98 @@
+package com.zy.demo.benchmark;
+
+import com.zy.demo.algorithm.Partition;
+import com.zy.demo.algorithm.SortedIntIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 有序数组二分查找的基准测试。
+ * 每次调用查询一批随机目标值(约一半存在于数组中)，结果为单次查询的平均耗时。
+ * @author zy
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Thread)
+public class PartitionBenchmark {
+
+    //每次调用的查询次数
+    private static final int PROBES = 1024;
+
+    //有序数组长度
+    @Param({"1000", "1000000", "100000000"})
+    public int size;
+
+    //有序数组
+    private int[] sorted;
+
+    //Eytzinger布局索引
+    private SortedIntIndex index;
+
+    //查询目标值
+    private int[] probes;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        Random random = new Random(Distribution.SEED);
+        //元素取偶数，查询奇数时必然不存在
+        this.sorted = new int[this.size];
+        for(int i = 0 ; i < this.size ; i++){
+            this.sorted[i] = i << 1;
+        }
+        this.index = new SortedIntIndex(this.sorted);
+        this.probes = new int[PROBES];
+        for(int i = 0 ; i < PROBES ; i++){
+            this.probes[i] = random.nextInt(this.size << 1);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void ifExist(Blackhole blackhole){
+        for(int probe : this.probes){
+            blackhole.consume(Partition.ifExist(this.sorted,probe));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void findFirstNum(Blackhole blackhole){
+        for(int probe : this.probes){
+            blackhole.consume(Partition.findFirstNum(this.sorted,probe));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void indexContains(Blackhole blackhole){
+        for(int probe : this.probes){
+            blackhole.consume(this.index.contains(probe));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void indexUpperBound(Blackhole blackhole){
+        for(int probe : this.probes){
+            blackhole.consume(this.index.upperBound(probe));
+        }
+    }
+}
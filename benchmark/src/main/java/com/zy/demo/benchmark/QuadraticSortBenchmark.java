@@ -0,0 +1,73 @@
+package com.zy.demo.benchmark;
+
+import com.zy.demo.algorithm.Sort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * O(n²)排序算法及快速排序的基准测试。
+ * 快速排序在有序数据上退化为O(n²)且递归深度为O(n)，因此与O(n²)排序算法使用相同的小规模数据。
+ * 每次调用先拷贝源数组再排序，拷贝耗时计入结果，各方法之间可直接比较。
+ * @author zy
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QuadraticSortBenchmark {
+
+    //数组长度
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    //数据分布
+    @Param({"RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE"})
+    public Distribution distribution;
+
+    //源数组
+    private int[] source;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        this.source = this.distribution.generate(this.size);
+    }
+
+    @Benchmark
+    public int[] bubbleSort(){
+        return Sort.bubbleSort(this.source.clone());
+    }
+
+    @Benchmark
+    public int[] insertionSort(){
+        return Sort.insertionSort(this.source.clone());
+    }
+
+    @Benchmark
+    public int[] selectionSort(){
+        return Sort.selectionSort(this.source.clone());
+    }
+
+    @Benchmark
+    public int[] quickSort(){
+        return Sort.quickSort(this.source.clone());
+    }
+
+    @Benchmark
+    public int[] introSort(){
+        return Sort.introSort(this.source.clone());
+    }
+}
@@ -0,0 +1,101 @@
+package com.zy.demo.benchmark;
+
+import com.zy.demo.algorithm.Sort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * O(nlogn)及O(n)排序算法的基准测试。
+ * 每次调用先拷贝源数组再排序，拷贝耗时计入结果，各方法之间可直接比较。
+ * @author zy
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SortBenchmark {
+
+    //并行排序的并行阈值
+    private static final int PARALLELISM_THRESHOLD = 8192;
+
+    //topK的元素个数
+    private static final int TOP_K = 100;
+
+    //数组长度
+    @Param({"10000", "1000000"})
+    public int size;
+
+    //数据分布
+    @Param({"RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE"})
+    public Distribution distribution;
+
+    //源数组
+    private int[] source;
+
+    //对象源数组
+    private Integer[] boxedSource;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        this.source = this.distribution.generate(this.size);
+        this.boxedSource = new Integer[this.size];
+        for(int i = 0 ; i < this.size ; i++){
+            this.boxedSource[i] = this.source[i];
+        }
+    }
+
+    @Benchmark
+    public int[] mergeSort(){
+        return Sort.mergeSort(this.source.clone());
+    }
+
+    @Benchmark
+    public int[] parallelMergeSort(){
+        return Sort.parallelMergeSort(this.source.clone(),PARALLELISM_THRESHOLD);
+    }
+
+    @Benchmark
+    public int[] introSort(){
+        return Sort.introSort(this.source.clone());
+    }
+
+    @Benchmark
+    public int[] radixSort(){
+        return Sort.radixSort(this.source.clone());
+    }
+
+    @Benchmark
+    public int[] parallelRadixSort(){
+        return Sort.parallelRadixSort(this.source.clone());
+    }
+
+    @Benchmark
+    public Integer[] sortObjects(){
+        return Sort.sort(this.boxedSource.clone(),Comparator.naturalOrder());
+    }
+
+    @Benchmark
+    public int select(){
+        return Sort.select(this.source.clone(),this.size >>> 1);
+    }
+
+    @Benchmark
+    public int[] topK(){
+        return Sort.topK(this.source.clone(),TOP_K);
+    }
+}
@@ -50,4 +50,226 @@ public class DynamicProgramming {
         }
         return commonStr.toString();
     }
+
+    /**
+     * 求解指定两个字符串的最大公共子字符串(滚动数组)，结果与{@link #getCommonStr(String, String)}一致。
+     *
+     * 优化思路：
+     * 1、状态转移strategies[i][j] = strategies[i-1][j-1]+1只依赖上一行，因此只保留上一行与当前行两个一维数组，滚动使用。
+     * 2、较短的字符串作为列，数组长度为O(min(m,n))。
+     * 3、填充策略集合的同时记录最大公共字符串长度及其在str1中的结束位置，无需再遍历一次策略集合。
+     *
+     * 时间复杂度：O(mn)
+     * 空间复杂度：O(min(m,n))
+     *
+     * @param str1 字符串1
+     * @param str2 字符串2
+     * @return 最大公共字符串，多个等长结果时返回在str1中最先结束的一个
+     */
+    public static String getCommonStrRolling(String str1,String str2){
+        //入参校验
+        if(str1 == null || str2 == null || str1.isEmpty() || str2.isEmpty()){
+            return "";
+        }
+        //str1较短时作为列，否则str2作为列
+        boolean str1AsColumn = str1.length() < str2.length();
+        char[] rows = str1AsColumn ? str2.toCharArray() : str1.toCharArray();
+        char[] columns = str1AsColumn ? str1.toCharArray() : str2.toCharArray();
+        //上一行与当前行(第一列仅用于占位)
+        int[] prev = new int[columns.length+1];
+        int[] cur = new int[columns.length+1];
+        //最大公共字符串长度
+        int maxLen = 0;
+        //最大公共字符串在str1中的结束位置(不包含)
+        int index = 0;
+        for(int i = 1 ; i <= rows.length ; i++){
+            char c = rows[i-1];
+            for(int j = 1 ; j <= columns.length ; j++){
+                if(c == columns[j-1]){
+                    int len = prev[j-1] + 1;
+                    cur[j] = len;
+                    //找最优策略：str1作为行时i递增，第一次出现即最先结束；str1作为列时需比较结束位置j
+                    if(len > maxLen || (str1AsColumn && len == maxLen && j < index)){
+                        maxLen = len;
+                        index = str1AsColumn ? j : i;
+                    }
+                }else{
+                    cur[j] = 0;
+                }
+            }
+            //滚动：当前行成为下一轮的上一行
+            int[] tmp = prev;
+            prev = cur;
+            cur = tmp;
+        }
+        return str1.substring(index - maxLen,index);
+    }
+
+    /**
+     * 并行填充最大公共子字符串的完整策略集合，结果与{@link #getCommonStr(String, String)}中的策略集合一致。
+     * strategies[i][j]为str1第i个字符与str2第j个字符结尾的公共子字符串长度，可用于查找全部公共子字符串的结束位置。
+     *
+     * 优化思路：
+     * 逐行填充只能使用一个CPU核心。strategies[i][j]只依赖左上方strategies[i-1][j-1]，
+     * 由{@link WavefrontExecutor}按分块反对角线波前并行填充，块内仍按行填充，缓存友好。
+     *
+     * 时间复杂度：O(mn/p)，p为并行度
+     * 空间复杂度：O(mn)
+     *
+     * @param str1 字符串1
+     * @param str2 字符串2
+     * @return 策略集合，第一行第一列仅用于占位
+     */
+    public static int[][] getCommonStrTable(String str1,String str2){
+        return getCommonStrTable(str1,str2,null,null);
+    }
+
+    /**
+     * 求解指定两个字符串的最大公共子字符串(波前并行)，结果与{@link #getCommonStr(String, String)}一致。
+     * 各分块填充时记录块内最大长度及其最小行号，全部分块完成后归约，无需再遍历一次策略集合。
+     *
+     * 时间复杂度：O(mn/p)，p为并行度
+     * 空间复杂度：O(mn)
+     *
+     * @param str1 字符串1
+     * @param str2 字符串2
+     * @return 最大公共字符串，多个等长结果时返回在str1中最先结束的一个
+     */
+    public static String getCommonStrParallel(String str1,String str2){
+        //入参校验
+        if(str1 == null || str2 == null || str1.isEmpty() || str2.isEmpty()){
+            return "";
+        }
+        int tileCount = WavefrontExecutor.tiles(str1.length(),WavefrontExecutor.DEFAULT_TILE_SIZE)
+                * WavefrontExecutor.tiles(str2.length(),WavefrontExecutor.DEFAULT_TILE_SIZE);
+        //各分块的最大长度及其在str1中的结束位置
+        int[] tileMaxLen = new int[tileCount];
+        int[] tileIndex = new int[tileCount];
+        getCommonStrTable(str1,str2,tileMaxLen,tileIndex);
+        //归约：长度最大者优先，等长时结束位置最小者优先
+        int maxLen = 0;
+        int index = 0;
+        for(int t = 0 ; t < tileCount ; t++){
+            if(tileMaxLen[t] > maxLen || (tileMaxLen[t] == maxLen && tileIndex[t] < index)){
+                maxLen = tileMaxLen[t];
+                index = tileIndex[t];
+            }
+        }
+        return str1.substring(index - maxLen,index);
+    }
+
+    /**
+     * 波前并行填充策略集合
+     * @param str1 字符串1
+     * @param str2 字符串2
+     * @param tileMaxLen 各分块的最大长度，为null时不记录
+     * @param tileIndex 各分块最大长度在str1中的最小结束位置，为null时不记录
+     * @return 策略集合
+     */
+    private static int[][] getCommonStrTable(String str1,String str2,int[] tileMaxLen,int[] tileIndex){
+        char[] c1 = str1 == null ? new char[0] : str1.toCharArray();
+        char[] c2 = str2 == null ? new char[0] : str2.toCharArray();
+        int[][] strategies = new int[c1.length+1][c2.length+1];
+        int tileCols = WavefrontExecutor.tiles(c2.length,WavefrontExecutor.DEFAULT_TILE_SIZE);
+        //分块覆盖第1行至第m行、第1列至第n列，执行器的行列从0开始，因此整体偏移1
+        WavefrontExecutor.execute(c1.length,c2.length,WavefrontExecutor.DEFAULT_TILE_SIZE,
+                (tileRow,tileCol,rowFrom,rowTo,colFrom,colTo) -> {
+            int maxLen = 0;
+            int index = 0;
+            for(int i = rowFrom + 1 ; i <= rowTo ; i++){
+                char c = c1[i-1];
+                int[] prev = strategies[i-1];
+                int[] cur = strategies[i];
+                for(int j = colFrom + 1 ; j <= colTo ; j++){
+                    if(c == c2[j-1]){
+                        int len = prev[j-1] + 1;
+                        cur[j] = len;
+                        //行号递增，第一次出现即最先结束
+                        if(len > maxLen){
+                            maxLen = len;
+                            index = i;
+                        }
+                    }
+                }
+            }
+            if(tileMaxLen != null){
+                tileMaxLen[tileRow * tileCols + tileCol] = maxLen;
+                tileIndex[tileRow * tileCols + tileCol] = index;
+            }
+        });
+        return strategies;
+    }
+
+    /**
+     * 求解指定两个字符串的编辑距离(莱文斯坦距离，波前并行)
+     *
+     * 状态转移：
+     * dp[i][0] = i，dp[0][j] = j
+     * dp[i][j] = dp[i-1][j-1]                                         (c1[i-1] == c2[j-1])
+     * dp[i][j] = min(dp[i-1][j-1], dp[i-1][j], dp[i][j-1]) + 1        (c1[i-1] != c2[j-1])
+     *
+     * 优化思路：
+     * 1、由{@link WavefrontExecutor}按分块反对角线波前并行填充。
+     * 2、分块只依赖上方分块的最后一行与左方分块的最后一列，因此只保存分块边界，不保存完整策略集合。
+     *    块内使用一维数组逐行滚动。
+     *
+     * 时间复杂度：O(mn/p)，p为并行度
+     * 空间复杂度：O(mn/tileSize)
+     *
+     * @param str1 字符串1
+     * @param str2 字符串2
+     * @return 编辑距离
+     */
+    public static int editDistance(String str1,String str2){
+        char[] c1 = str1 == null ? new char[0] : str1.toCharArray();
+        char[] c2 = str2 == null ? new char[0] : str2.toCharArray();
+        if(c1.length == 0 || c2.length == 0){
+            return c1.length + c2.length;
+        }
+        int tileSize = WavefrontExecutor.DEFAULT_TILE_SIZE;
+        int tileRows = WavefrontExecutor.tiles(c1.length,tileSize);
+        int tileCols = WavefrontExecutor.tiles(c2.length,tileSize);
+        //rowBounds[r][j] = dp[min(r*tileSize,m)][j]，即第r行分块的上边界
+        int[][] rowBounds = new int[tileRows+1][c2.length+1];
+        //colBounds[c][i] = dp[i][min(c*tileSize,n)]，即第c列分块的左边界
+        int[][] colBounds = new int[tileCols+1][c1.length+1];
+        for(int j = 0 ; j <= c2.length ; j++){
+            rowBounds[0][j] = j;
+        }
+        for(int i = 0 ; i <= c1.length ; i++){
+            colBounds[0][i] = i;
+        }
+        WavefrontExecutor.execute(c1.length,c2.length,tileSize,
+                (tileRow,tileCol,rowFrom,rowTo,colFrom,colTo) -> {
+            int[] top = rowBounds[tileRow];
+            int[] left = colBounds[tileCol];
+            int[] bottom = rowBounds[tileRow+1];
+            int[] right = colBounds[tileCol+1];
+            //块内滚动数组，row[k]对应第colFrom+k列
+            int[] row = new int[colTo - colFrom + 1];
+            System.arraycopy(top,colFrom,row,0,row.length);
+            for(int i = rowFrom + 1 ; i <= rowTo ; i++){
+                char c = c1[i-1];
+                //左上方
+                int diagonal = row[0];
+                row[0] = left[i];
+                for(int k = 1 ; k < row.length ; k++){
+                    int up = row[k];
+                    if(c == c2[colFrom+k-1]){
+                        row[k] = diagonal;
+                    }else{
+                        row[k] = Math.min(diagonal,Math.min(up,row[k-1])) + 1;
+                    }
+                    diagonal = up;
+                }
+                right[i] = row[row.length-1];
+            }
+            //下边界：第一列由左方分块写入(第一列分块写入第0列)
+            if(tileCol == 0){
+                bottom[0] = rowTo;
+            }
+            System.arraycopy(row,1,bottom,colFrom + 1,row.length - 1);
+        });
+        return rowBounds[tileRows][c2.length];
+    }
 }
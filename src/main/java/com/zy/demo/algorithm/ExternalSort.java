@@ -0,0 +1,456 @@
+package com.zy.demo.algorithm;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 外部排序
+ *
+ * 原理：
+ * 待排序文件大于堆内存时，无法一次性加载到内存排序，需要分两个阶段完成：
+ * 1、生成顺串：按堆内存可容纳的元素个数分段读取文件，每段使用内存排序算法排序后写入临时文件，称为顺串。
+ * 2、多路归并：每个顺串分配一个读缓冲区，用小顶堆维护各顺串的当前最小元素，依次弹出堆顶写入结果文件，直到所有顺串读取完毕。
+ *
+ * 文件格式：
+ * 二进制文件，元素按大端字节序连续存储(与DataOutputStream.writeInt/writeLong写出的格式一致)。
+ *
+ * 性能：
+ * 时间复杂度：O(nlogk) --顺串内使用基数排序是O(n)，k路归并每个元素出入堆一次是O(logk)。
+ * 空间复杂度：O(m) --m为顺串长度，与文件大小无关。
+ * IO次数：输入文件与临时文件各完整读写1次。
+ *
+ * @author zy
+ */
+public class ExternalSort {
+
+    //文件读写缓冲区大小
+    private static final int IO_BUFFER_SIZE = 1 << 20;
+
+    //归并阶段每个顺串读缓冲区的最小值
+    private static final int MIN_MERGE_BUFFER_SIZE = 1 << 13;
+
+    //归并阶段所有顺串读缓冲区的总大小
+    private static final int MERGE_BUFFER_TOTAL_SIZE = 1 << 26;
+
+    /**
+     * 对int文件升序排序，顺串长度根据最大堆内存自动计算。
+     * @param input 待排序文件
+     * @param output 排序结果文件，已存在则覆盖
+     * @throws IOException 文件读写异常
+     */
+    public static void sortInts(Path input,Path output) throws IOException {
+        sortInts(input,output,defaultRunLength(Integer.BYTES));
+    }
+
+    /**
+     * 对int文件升序排序
+     * @param input 待排序文件
+     * @param output 排序结果文件，已存在则覆盖
+     * @param runLength 顺串长度，即每次加载到内存排序的元素个数
+     * @throws IOException 文件读写异常
+     */
+    public static void sortInts(Path input,Path output,int runLength) throws IOException {
+        sort(input,output,runLength,Integer.BYTES);
+    }
+
+    /**
+     * 对long文件升序排序，顺串长度根据最大堆内存自动计算。
+     * @param input 待排序文件
+     * @param output 排序结果文件，已存在则覆盖
+     * @throws IOException 文件读写异常
+     */
+    public static void sortLongs(Path input,Path output) throws IOException {
+        sortLongs(input,output,defaultRunLength(Long.BYTES));
+    }
+
+    /**
+     * 对long文件升序排序
+     * @param input 待排序文件
+     * @param output 排序结果文件，已存在则覆盖
+     * @param runLength 顺串长度，即每次加载到内存排序的元素个数
+     * @throws IOException 文件读写异常
+     */
+    public static void sortLongs(Path input,Path output,int runLength) throws IOException {
+        sort(input,output,runLength,Long.BYTES);
+    }
+
+    /**
+     * 计算默认顺串长度：基数排序需要与顺串等长的辅助数组，因此顺串占用最大堆内存的1/4。
+     * @param elementBytes 元素字节数
+     * @return 顺串长度
+     */
+    private static int defaultRunLength(int elementBytes){
+        long length = Runtime.getRuntime().maxMemory() / 4 / elementBytes;
+        return (int) Math.max(1,Math.min(length,Integer.MAX_VALUE - 8));
+    }
+
+    /**
+     * 外部排序
+     * @param input 待排序文件
+     * @param output 排序结果文件
+     * @param runLength 顺串长度
+     * @param elementBytes 元素字节数
+     * @throws IOException 文件读写异常
+     */
+    private static void sort(Path input,Path output,int runLength,int elementBytes) throws IOException {
+        //入参校验
+        if(input == null || output == null){
+            throw new IllegalArgumentException("Illegal path!");
+        }
+        if(runLength < 1){
+            throw new IllegalArgumentException("Illegal runLength=" + runLength);
+        }
+        //顺串文件列表
+        List<Path> runs = new ArrayList<>();
+        //临时文件目录，与结果文件位于同一目录下，避免系统临时目录空间不足
+        Path tempDir = null;
+        try{
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+            try(FileChannel in = FileChannel.open(input,StandardOpenOption.READ)){
+                long size = in.size();
+                if(size % elementBytes != 0){
+                    throw new IllegalArgumentException("Illegal file size=" + size);
+                }
+                long total = size / elementBytes;
+                //文件可以一次性加载到内存时，直接内存排序
+                if(total <= runLength){
+                    sortInMemory(in,output,(int) total,elementBytes,buffer);
+                    return;
+                }
+                //阶段1：生成顺串
+                Path parent = output.toAbsolutePath().getParent();
+                tempDir = Files.createTempDirectory(parent,"external-sort");
+                if(elementBytes == Integer.BYTES){
+                    int[] run = new int[runLength];
+                    for(long remaining = total ; remaining > 0 ; remaining -= run.length){
+                        if(remaining < run.length){
+                            run = new int[(int) remaining];
+                        }
+                        readInts(in,buffer,run);
+                        Sort.radixSort(run);
+                        Path runFile = Files.createTempFile(tempDir,"run",".bin");
+                        runs.add(runFile);
+                        try(FileChannel out = FileChannel.open(runFile,StandardOpenOption.WRITE)){
+                            writeInts(out,buffer,run);
+                        }
+                    }
+                }else{
+                    long[] run = new long[runLength];
+                    for(long remaining = total ; remaining > 0 ; remaining -= run.length){
+                        if(remaining < run.length){
+                            run = new long[(int) remaining];
+                        }
+                        readLongs(in,buffer,run);
+                        Sort.radixSort(run);
+                        Path runFile = Files.createTempFile(tempDir,"run",".bin");
+                        runs.add(runFile);
+                        try(FileChannel out = FileChannel.open(runFile,StandardOpenOption.WRITE)){
+                            writeLongs(out,buffer,run);
+                        }
+                    }
+                }
+            }
+            //阶段2：多路归并
+            merge(runs,output,elementBytes,buffer);
+        }finally{
+            //清理临时文件
+            for(Path run : runs){
+                Files.deleteIfExists(run);
+            }
+            if(tempDir != null){
+                Files.deleteIfExists(tempDir);
+            }
+        }
+    }
+
+    /**
+     * 文件一次性加载到内存排序并写入结果文件
+     * @param in 待排序文件通道
+     * @param output 排序结果文件
+     * @param total 元素个数
+     * @param elementBytes 元素字节数
+     * @param buffer 读写缓冲区
+     * @throws IOException 文件读写异常
+     */
+    private static void sortInMemory(FileChannel in,Path output,int total,int elementBytes,ByteBuffer buffer) throws IOException {
+        if(elementBytes == Integer.BYTES){
+            int[] arr = new int[total];
+            readInts(in,buffer,arr);
+            Sort.radixSort(arr);
+            try(FileChannel out = openOutput(output)){
+                writeInts(out,buffer,arr);
+            }
+        }else{
+            long[] arr = new long[total];
+            readLongs(in,buffer,arr);
+            Sort.radixSort(arr);
+            try(FileChannel out = openOutput(output)){
+                writeLongs(out,buffer,arr);
+            }
+        }
+    }
+
+    /**
+     * k路归并：小顶堆维护各顺串的当前元素，堆顶即全局最小元素。
+     * @param runs 顺串文件列表
+     * @param output 排序结果文件
+     * @param elementBytes 元素字节数
+     * @param outBuffer 写缓冲区
+     * @throws IOException 文件读写异常
+     */
+    private static void merge(List<Path> runs,Path output,int elementBytes,ByteBuffer outBuffer) throws IOException {
+        int k = runs.size();
+        //按顺串数量均分读缓冲区，并与元素字节数对齐
+        int readBufferSize = Math.max(MIN_MERGE_BUFFER_SIZE,Math.min(IO_BUFFER_SIZE,MERGE_BUFFER_TOTAL_SIZE / k));
+        readBufferSize -= readBufferSize % Long.BYTES;
+        //小顶堆，堆大小为仍有剩余元素的顺串个数
+        RunReader[] heap = new RunReader[k];
+        int heapSize = 0;
+        try{
+            for(Path run : runs){
+                FileChannel channel = FileChannel.open(run,StandardOpenOption.READ);
+                RunReader reader;
+                try{
+                    reader = new RunReader(channel,readBufferSize,elementBytes);
+                }catch(RuntimeException | Error e){
+                    //分配读缓冲区失败(如直接内存不足)时通道尚未加入堆，需要单独关闭
+                    channel.close();
+                    throw e;
+                }
+                heap[heapSize++] = reader;
+                reader.advance();
+            }
+            //自底向上建堆
+            for(int i = (heapSize >>> 1) - 1 ; i >= 0 ; i--){
+                siftDown(heap,i,heapSize);
+            }
+            try(FileChannel out = openOutput(output)){
+                outBuffer.clear();
+                while(heapSize > 0){
+                    RunReader top = heap[0];
+                    //写缓冲区已满，刷新到文件
+                    if(outBuffer.remaining() < elementBytes){
+                        flush(out,outBuffer);
+                    }
+                    if(elementBytes == Integer.BYTES){
+                        outBuffer.putInt((int) top.head);
+                    }else{
+                        outBuffer.putLong(top.head);
+                    }
+                    //堆顶顺串读取下一个元素，读取完毕则移出堆
+                    if(!top.advance()){
+                        top.close();
+                        heap[0] = heap[--heapSize];
+                        heap[heapSize] = null;
+                    }
+                    siftDown(heap,0,heapSize);
+                }
+                flush(out,outBuffer);
+            }
+        }finally{
+            for(int i = 0 ; i < heapSize ; i++){
+                heap[i].close();
+            }
+        }
+    }
+
+    /**
+     * 小顶堆下沉
+     * @param heap 堆
+     * @param i 下沉结点索引
+     * @param size 堆大小
+     */
+    private static void siftDown(RunReader[] heap,int i,int size){
+        if(size == 0){
+            return;
+        }
+        RunReader node = heap[i];
+        int child;
+        while((child = (i << 1) + 1) < size){
+            //取较小的子结点
+            if(child + 1 < size && heap[child+1].head < heap[child].head){
+                child++;
+            }
+            if(node.head <= heap[child].head){
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = node;
+    }
+
+    /**
+     * 打开结果文件，已存在则清空
+     * @param output 结果文件
+     * @return 文件通道
+     * @throws IOException 文件读写异常
+     */
+    private static FileChannel openOutput(Path output) throws IOException {
+        return FileChannel.open(output,StandardOpenOption.CREATE,StandardOpenOption.TRUNCATE_EXISTING,StandardOpenOption.WRITE);
+    }
+
+    /**
+     * 从文件通道读取int数组
+     * @param in 文件通道
+     * @param buffer 读缓冲区
+     * @param dst 目标数组，读满为止
+     * @throws IOException 文件读写异常
+     */
+    private static void readInts(FileChannel in,ByteBuffer buffer,int[] dst) throws IOException {
+        int offset = 0;
+        while(offset < dst.length){
+            int count = Math.min(dst.length - offset,buffer.capacity() / Integer.BYTES);
+            fill(in,buffer,count * Integer.BYTES);
+            buffer.asIntBuffer().get(dst,offset,count);
+            offset += count;
+        }
+    }
+
+    /**
+     * 从文件通道读取long数组
+     * @param in 文件通道
+     * @param buffer 读缓冲区
+     * @param dst 目标数组，读满为止
+     * @throws IOException 文件读写异常
+     */
+    private static void readLongs(FileChannel in,ByteBuffer buffer,long[] dst) throws IOException {
+        int offset = 0;
+        while(offset < dst.length){
+            int count = Math.min(dst.length - offset,buffer.capacity() / Long.BYTES);
+            fill(in,buffer,count * Long.BYTES);
+            buffer.asLongBuffer().get(dst,offset,count);
+            offset += count;
+        }
+    }
+
+    /**
+     * 将int数组写入文件通道
+     * @param out 文件通道
+     * @param buffer 写缓冲区
+     * @param src 源数组
+     * @throws IOException 文件读写异常
+     */
+    private static void writeInts(FileChannel out,ByteBuffer buffer,int[] src) throws IOException {
+        int offset = 0;
+        while(offset < src.length){
+            int count = Math.min(src.length - offset,buffer.capacity() / Integer.BYTES);
+            buffer.clear();
+            buffer.asIntBuffer().put(src,offset,count);
+            buffer.position(count * Integer.BYTES);
+            flush(out,buffer);
+            offset += count;
+        }
+    }
+
+    /**
+     * 将long数组写入文件通道
+     * @param out 文件通道
+     * @param buffer 写缓冲区
+     * @param src 源数组
+     * @throws IOException 文件读写异常
+     */
+    private static void writeLongs(FileChannel out,ByteBuffer buffer,long[] src) throws IOException {
+        int offset = 0;
+        while(offset < src.length){
+            int count = Math.min(src.length - offset,buffer.capacity() / Long.BYTES);
+            buffer.clear();
+            buffer.asLongBuffer().put(src,offset,count);
+            buffer.position(count * Long.BYTES);
+            flush(out,buffer);
+            offset += count;
+        }
+    }
+
+    /**
+     * 从文件通道读满指定字节数到缓冲区，读取完成后缓冲区处于可读状态
+     * @param in 文件通道
+     * @param buffer 缓冲区
+     * @param bytes 字节数
+     * @throws IOException 文件读写异常
+     */
+    private static void fill(FileChannel in,ByteBuffer buffer,int bytes) throws IOException {
+        buffer.clear();
+        buffer.limit(bytes);
+        while(buffer.hasRemaining()){
+            if(in.read(buffer) < 0){
+                throw new EOFException("Unexpected end of file");
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * 将缓冲区中已写入的数据全部写到文件通道，完成后清空缓冲区
+     * @param out 文件通道
+     * @param buffer 缓冲区
+     * @throws IOException 文件读写异常
+     */
+    private static void flush(FileChannel out,ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while(buffer.hasRemaining()){
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * 顺串读取器
+     */
+    private static final class RunReader {
+
+        //顺串文件通道
+        private final FileChannel channel;
+        //读缓冲区
+        private final ByteBuffer buffer;
+        //元素字节数
+        private final int elementBytes;
+        //当前元素
+        private long head;
+
+        RunReader(FileChannel channel,int bufferSize,int elementBytes){
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+            this.buffer.limit(0);
+            this.elementBytes = elementBytes;
+        }
+
+        /**
+         * 读取下一个元素到head
+         * @return 读取成功返回true；顺串已读取完毕返回false。
+         * @throws IOException 文件读写异常
+         */
+        boolean advance() throws IOException {
+            if(this.buffer.remaining() < this.elementBytes){
+                //缓冲区已读完，从文件重新填充
+                this.buffer.clear();
+                while(this.buffer.hasRemaining()){
+                    if(this.channel.read(this.buffer) < 0){
+                        break;
+                    }
+                }
+                this.buffer.flip();
+                if(this.buffer.remaining() < this.elementBytes){
+                    return false;
+                }
+            }
+            this.head = this.elementBytes == Integer.BYTES ? this.buffer.getInt() : this.buffer.getLong();
+            return true;
+        }
+
+        /**
+         * 关闭顺串文件通道
+         * @throws IOException 文件读写异常
+         */
+        void close() throws IOException {
+            this.channel.close();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.zy.demo.algorithm;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 汉诺塔移动序列(惰性生成)
+ *
+ * {@link Recursion#HanoiTower(java.util.ArrayDeque, java.util.ArrayDeque)}通过递归真实移动全部圆盘，
+ * 2^n-1步全部在内存中完成，n稍大即无法使用。本类不保存任何移动，第k步直接由k计算得到。
+ *
+ * 原理(柱子编号：x=0，y=1，z=2，圆盘编号：最小圆盘为1)：
+ * 1、第k步(k从1开始)移动的圆盘为k的二进制末尾0的个数+1，即圆盘1每隔1步移动一次，圆盘2每隔2步，圆盘3每隔4步……
+ * 2、n为奇数时，第k步从柱子(k&(k-1))%3移动到柱子((k|(k-1))+1)%3。
+ * 3、n为偶数时，上述公式把圆盘移到y，交换y、z即可。
+ *
+ * 移动编码为int：圆盘<<4 | 起始柱子<<2 | 目标柱子，使用{@link #disc(int)}、{@link #from(int)}、{@link #to(int)}解码。
+ * 迭代、跳转、拆分均不分配额外内存，支持并行流。
+ *
+ * 性能：
+ * 计算第k步：时间复杂度O(1)，空间复杂度O(1)。
+ *
+ * @author zy
+ */
+public final class HanoiMoves {
+
+    //最大圆盘数量：终止步2^n不超过long
+    public static final int MAX_DISCS = 62;
+
+    //柱子x
+    public static final int X = 0;
+
+    //柱子y
+    public static final int Y = 1;
+
+    //柱子z
+    public static final int Z = 2;
+
+    //圆盘数量
+    private final int n;
+
+    //移动步数
+    private final long size;
+
+    /**
+     * 构造n个圆盘从x移动到z的移动序列
+     * @param n 圆盘数量，1<=n<=62
+     */
+    public HanoiMoves(int n){
+        //入参校验
+        if(n < 1 || n > MAX_DISCS){
+            throw new IllegalArgumentException("Illegal n=" + n);
+        }
+        this.n = n;
+        this.size = (1L << n) - 1;
+    }
+
+    /**
+     * 获取圆盘数量
+     * @return 圆盘数量
+     */
+    public int discs(){
+        return this.n;
+    }
+
+    /**
+     * 获取移动步数
+     * @return 2^n-1
+     */
+    public long size(){
+        return this.size;
+    }
+
+    /**
+     * 计算第k步移动
+     * @param k 步数，1<=k<=2^n-1
+     * @return 移动编码
+     */
+    public int get(long k){
+        if(k < 1 || k > this.size){
+            throw new IndexOutOfBoundsException("Illegal k=" + k);
+        }
+        return move(this.n,k);
+    }
+
+    /**
+     * 从第1步开始迭代
+     * @return 移动编码迭代器
+     */
+    public PrimitiveIterator.OfInt iterator(){
+        return this.iterator(1);
+    }
+
+    /**
+     * 从第k步开始迭代，跳转不需要计算之前的移动
+     * @param k 起始步数，1<=k<=2^n(等于2^n时迭代器为空)
+     * @return 移动编码迭代器
+     */
+    public PrimitiveIterator.OfInt iterator(long k){
+        if(k < 1 || k > this.size + 1){
+            throw new IndexOutOfBoundsException("Illegal k=" + k);
+        }
+        return new MoveSpliterator(this.n,k,this.size + 1);
+    }
+
+    /**
+     * 可拆分迭代器，按步数区间对半拆分
+     * @return 移动编码可拆分迭代器
+     */
+    public Spliterator.OfInt spliterator(){
+        return new MoveSpliterator(this.n,1,this.size + 1);
+    }
+
+    /**
+     * 移动编码流
+     * @param parallel 是否并行
+     * @return 移动编码流
+     */
+    public IntStream stream(boolean parallel){
+        return StreamSupport.intStream(this.spliterator(),parallel);
+    }
+
+    /**
+     * 解码：圆盘编号
+     * @param move 移动编码
+     * @return 圆盘编号，最小圆盘为1
+     */
+    public static int disc(int move){
+        return move >>> 4;
+    }
+
+    /**
+     * 解码：起始柱子
+     * @param move 移动编码
+     * @return 起始柱子
+     */
+    public static int from(int move){
+        return (move >>> 2) & 3;
+    }
+
+    /**
+     * 解码：目标柱子
+     * @param move 移动编码
+     * @return 目标柱子
+     */
+    public static int to(int move){
+        return move & 3;
+    }
+
+    /**
+     * 计算n个圆盘的第k步移动
+     * @param n 圆盘数量
+     * @param k 步数
+     * @return 移动编码
+     */
+    private static int move(int n,long k){
+        int disc = Long.numberOfTrailingZeros(k) + 1;
+        int from = (int) ((k & (k - 1)) % 3);
+        int to = (int) (((k | (k - 1)) + 1) % 3);
+        //n为偶数时交换y、z
+        if((n & 1) == 0){
+            from = from == X ? X : 3 - from;
+            to = to == X ? X : 3 - to;
+        }
+        return disc << 4 | from << 2 | to;
+    }
+
+    /**
+     * 步数区间[origin,fence)上的迭代器
+     */
+    private static final class MoveSpliterator implements Spliterator.OfInt,PrimitiveIterator.OfInt {
+
+        private final int n;
+
+        //下一步
+        private long origin;
+
+        //终止步(不包含)
+        private final long fence;
+
+        MoveSpliterator(int n,long origin,long fence){
+            this.n = n;
+            this.origin = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.origin < this.fence;
+        }
+
+        @Override
+        public int nextInt() {
+            if(this.origin >= this.fence){
+                throw new NoSuchElementException();
+            }
+            return move(this.n,this.origin++);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if(this.origin >= this.fence){
+                return false;
+            }
+            action.accept(move(this.n,this.origin++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            long k = this.origin;
+            long end = this.fence;
+            int discs = this.n;
+            this.origin = end;
+            for( ; k < end ; k++){
+                action.accept(move(discs,k));
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Integer> action) {
+            if(action instanceof IntConsumer){
+                this.forEachRemaining((IntConsumer) action);
+            }else{
+                this.forEachRemaining((IntConsumer) action::accept);
+            }
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            long low = this.origin;
+            long middle = (low + this.fence) >>> 1;
+            if(middle <= low){
+                return null;
+            }
+            this.origin = middle;
+            return new MoveSpliterator(this.n,low,middle);
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.fence - this.origin;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.zy.demo.algorithm;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ * 记忆化：缓存long参数函数的计算结果，重叠子问题只计算一次
+ *
+ * 缓存结构：
+ * 1、键直接存储在long[]中，开放定址法(线性探测)，不需要装箱。
+ * 2、按键的哈希值分为16个分段，每个分段单独加锁，多线程查询不同分段时互不阻塞。
+ * 3、有界模式下每个分段容量固定，达到上限时按CLOCK(二次机会)算法淘汰：命中时标记访问位，
+ *    淘汰时循环扫描，跳过并清除有访问位的结果，淘汰第一个没有访问位的结果。删除使用后移法，不留墓碑。
+ *
+ * 线程安全与递归：
+ * 计算在锁外进行，计算完成后加锁放入，键已被其他线程放入时使用已存在的结果(putIfAbsent语义)。
+ * 因此递归函数在计算中查询其他键不会死锁，也不会像ConcurrentHashMap.computeIfAbsent那样抛出"Recursive update"，
+ * 代价是多个线程同时未命中同一个键时可能重复计算，但最终都返回同一个结果。
+ *
+ * 栈安全：
+ * 递归函数返回{@link Trampoline}，查询其他键使用{@link #call(long)}，递归深度不受线程栈限制。例如：
+ * <pre>
+ * Memoizer&lt;BigInteger&gt; fib = new Memoizer&lt;&gt;((self,n) -&gt; n &lt; 2
+ *         ? Trampoline.done(BigInteger.valueOf(n))
+ *         : self.call(n - 1).flatMap(a -&gt; self.call(n - 2).map(a::add)));
+ * fib.get(100000);
+ * </pre>
+ *
+ * 增查的时间复杂度：O(1)
+ *
+ * @param <V> 计算结果类型
+ * @author zy
+ */
+public final class Memoizer<V> {
+
+    /**
+     * 可递归的函数
+     * @param <V> 计算结果类型
+     */
+    @FunctionalInterface
+    public interface RecursiveFunction<V> {
+
+        /**
+         * 计算
+         * @param self 所属的记忆化实例，用于查询其他键
+         * @param key 参数
+         * @return 计算步骤
+         */
+        Trampoline<V> apply(Memoizer<V> self,long key);
+    }
+
+    //乘法散列常数(2^64/黄金分割比)
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+
+    //分段数的二进制位数
+    private static final int SEGMENT_BITS = 4;
+
+    //分段数
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+
+    //null结果的占位对象
+    private static final Object NULL = new Object();
+
+    //被记忆化的函数
+    private final RecursiveFunction<V> function;
+
+    //分段
+    private final Segment[] segments;
+
+    /**
+     * 无界记忆化普通函数
+     * @param function 函数
+     */
+    public Memoizer(LongFunction<? extends V> function){
+        this(function,0);
+    }
+
+    /**
+     * 有界记忆化普通函数
+     * @param function 函数
+     * @param maxSize 最多缓存的结果个数(按分段向上取整)，0表示无界
+     */
+    public Memoizer(LongFunction<? extends V> function,int maxSize){
+        this(plain(function),maxSize);
+    }
+
+    /**
+     * 无界记忆化递归函数
+     * @param function 递归函数
+     */
+    public Memoizer(RecursiveFunction<V> function){
+        this(function,0);
+    }
+
+    /**
+     * 有界记忆化递归函数
+     * @param function 递归函数
+     * @param maxSize 最多缓存的结果个数(按分段向上取整)，0表示无界
+     */
+    public Memoizer(RecursiveFunction<V> function,int maxSize){
+        //入参校验
+        if(function == null){
+            throw new IllegalArgumentException("Illegal function!");
+        }
+        if(maxSize < 0){
+            throw new IllegalArgumentException("Illegal maxSize=" + maxSize);
+        }
+        this.function = function;
+        this.segments = new Segment[SEGMENTS];
+        int segmentMaxSize = maxSize == 0 ? 0 : (maxSize + SEGMENTS - 1) / SEGMENTS;
+        for(int i = 0 ; i < SEGMENTS ; i++){
+            this.segments[i] = new Segment(segmentMaxSize);
+        }
+    }
+
+    /**
+     * 获取键对应的结果，未缓存时计算并缓存
+     * @param key 键
+     * @return 计算结果
+     */
+    public V get(long key){
+        Object value = this.segmentOf(key).get(key);
+        if(value != null){
+            return unmask(value);
+        }
+        return this.call(key).run();
+    }
+
+    /**
+     * 获取已缓存的结果，不计算
+     * @param key 键
+     * @return 计算结果；未缓存时返回null。
+     */
+    public V getIfPresent(long key){
+        Object value = this.segmentOf(key).get(key);
+        return value == null ? null : unmask(value);
+    }
+
+    /**
+     * 获取键对应结果的计算步骤，供递归函数内部查询其他键
+     * @param key 键
+     * @return 已缓存时为已完成的计算；否则为延迟计算，完成后缓存结果。
+     */
+    public Trampoline<V> call(long key){
+        Object value = this.segmentOf(key).get(key);
+        if(value != null){
+            return Trampoline.done(unmask(value));
+        }
+        //延迟计算，避免构建计算步骤时发生递归
+        return Trampoline.more(() -> this.function.apply(this,key).map(result -> {
+            Object existing = this.segmentOf(key).putIfAbsent(key,result == null ? NULL : result);
+            //其他线程已放入时使用已存在的结果
+            return existing == null ? result : unmask(existing);
+        }));
+    }
+
+    /**
+     * 获取已缓存的结果个数
+     * @return 结果个数
+     */
+    public int size(){
+        int size = 0;
+        for(Segment segment : this.segments){
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear(){
+        for(Segment segment : this.segments){
+            segment.clear();
+        }
+    }
+
+    /**
+     * 普通函数转换为递归函数
+     */
+    private static <V> RecursiveFunction<V> plain(LongFunction<? extends V> function){
+        if(function == null){
+            throw new IllegalArgumentException("Illegal function!");
+        }
+        return (self,key) -> Trampoline.done(function.apply(key));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V unmask(Object value){
+        return value == NULL ? null : (V) value;
+    }
+
+    /**
+     * 键的哈希值
+     */
+    private static long hash(long key){
+        return key * PHI;
+    }
+
+    /**
+     * 键所在的分段：取哈希值的最高几位
+     */
+    private Segment segmentOf(long key){
+        return this.segments[(int) (hash(key) >>> (64 - SEGMENT_BITS))];
+    }
+
+    /**
+     * 分段：开放定址哈希表，方法均加锁
+     */
+    private static final class Segment {
+
+        //默认容量
+        private static final int DEFAULT_CAPACITY = 16;
+
+        //键数组
+        private long[] keys;
+
+        //值数组，null表示空槽
+        private Object[] values;
+
+        //访问位
+        private boolean[] referenced;
+
+        //结果个数
+        private int size;
+
+        //最多缓存的结果个数，0表示无界
+        private final int maxSize;
+
+        //CLOCK指针
+        private int hand;
+
+        Segment(int maxSize){
+            this.maxSize = maxSize;
+            //有界时一次分配到位，装载因子不超过1/2，不再扩容
+            int capacity = DEFAULT_CAPACITY;
+            while(capacity < (long) maxSize * 2){
+                capacity <<= 1;
+            }
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            this.referenced = new boolean[capacity];
+        }
+
+        synchronized int size(){
+            return this.size;
+        }
+
+        synchronized Object get(long key){
+            int index = this.indexOf(key);
+            Object value = this.values[index];
+            if(value != null){
+                this.referenced[index] = true;
+            }
+            return value;
+        }
+
+        /**
+         * 键不存在时放入
+         * @return 已存在的值；本次放入成功时返回null。
+         */
+        synchronized Object putIfAbsent(long key,Object value){
+            int index = this.indexOf(key);
+            if(this.values[index] != null){
+                this.referenced[index] = true;
+                return this.values[index];
+            }
+            if(this.maxSize > 0 && this.size >= this.maxSize){
+                this.evict();
+                index = this.indexOf(key);
+            }
+            this.keys[index] = key;
+            this.values[index] = value;
+            this.referenced[index] = false;
+            //无界时装载因子达到1/2扩容
+            if(++this.size * 2 > this.keys.length){
+                this.expand();
+            }
+            return null;
+        }
+
+        synchronized void clear(){
+            Arrays.fill(this.values,null);
+            Arrays.fill(this.referenced,false);
+            this.size = 0;
+            this.hand = 0;
+        }
+
+        /**
+         * 键的初始槽位：取哈希值去掉分段位后的高位
+         */
+        private int home(long key){
+            int mask = this.keys.length - 1;
+            int bits = Integer.numberOfTrailingZeros(this.keys.length);
+            return (int) (hash(key) >>> (64 - SEGMENT_BITS - bits)) & mask;
+        }
+
+        /**
+         * 线性探测
+         * @return 键所在的槽位；不存在时返回探测到的第一个空槽。
+         */
+        private int indexOf(long key){
+            int mask = this.keys.length - 1;
+            int index = this.home(key);
+            while(this.values[index] != null && this.keys[index] != key){
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        /**
+         * CLOCK淘汰一个结果
+         */
+        private void evict(){
+            int mask = this.keys.length - 1;
+            while(true){
+                int index = this.hand;
+                this.hand = (index + 1) & mask;
+                if(this.values[index] == null){
+                    continue;
+                }
+                if(this.referenced[index]){
+                    //二次机会
+                    this.referenced[index] = false;
+                    continue;
+                }
+                this.delete(index);
+                return;
+            }
+        }
+
+        /**
+         * 后移法删除：把后续探测链上可以前移的结果前移填补空槽
+         */
+        private void delete(int index){
+            int mask = this.keys.length - 1;
+            int hole = index;
+            this.values[hole] = null;
+            this.referenced[hole] = false;
+            int j = hole;
+            while(true){
+                j = (j + 1) & mask;
+                if(this.values[j] == null){
+                    break;
+                }
+                int home = this.home(this.keys[j]);
+                //初始槽位在(hole,j]之间(环形)的结果不能前移
+                boolean stay = hole <= j ? (hole < home && home <= j) : (hole < home || home <= j);
+                if(stay){
+                    continue;
+                }
+                this.keys[hole] = this.keys[j];
+                this.values[hole] = this.values[j];
+                this.referenced[hole] = this.referenced[j];
+                this.values[j] = null;
+                this.referenced[j] = false;
+                hole = j;
+            }
+            this.size--;
+        }
+
+        /**
+         * 容量翻倍并重新散列
+         */
+        private void expand(){
+            long[] oldKeys = this.keys;
+            Object[] oldValues = this.values;
+            boolean[] oldReferenced = this.referenced;
+            this.keys = new long[oldKeys.length << 1];
+            this.values = new Object[oldKeys.length << 1];
+            this.referenced = new boolean[oldKeys.length << 1];
+            this.hand = 0;
+            for(int i = 0 ; i < oldKeys.length ; i++){
+                if(oldValues[i] != null){
+                    int index = this.indexOf(oldKeys[i]);
+                    this.keys[index] = oldKeys[i];
+                    this.values[index] = oldValues[i];
+                    this.referenced[index] = oldReferenced[i];
+                }
+            }
+        }
+    }
+}
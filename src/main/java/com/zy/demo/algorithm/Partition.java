@@ -1,5 +1,9 @@
 package com.zy.demo.algorithm;
 
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
 /**
  * 分治
  * @author zy
@@ -71,11 +75,11 @@ public class Partition {
         while(low <= high){
             //获取中位索引
             middle = (low+high)/2;
-            //如果目标值小于中位数字，且中位元素前1位数字大于等于目标值，剔除中位索引到0的情况
-            if(target < arr[middle] && (middle == 0 || target <= arr[middle-1])){
+            //如果目标值小于中位数字，且中位元素前1位数字小于等于目标值，剔除中位索引到0的情况
+            if(target < arr[middle] && (middle == 0 || target >= arr[middle-1])){
                 //中位数字即数字中大于target的第一个数字
                 return arr[middle];
-            }else if(target > arr[middle]){
+            }else if(target >= arr[middle]){
                 low = middle+1;
             }else{
                 high = middle-1;
@@ -83,4 +87,246 @@ public class Partition {
         }
         return -1;
     }
+
+    //并行批量查找的最小查找值个数，小于该值时串行查找
+    private static final int PARALLEL_BATCH_THRESHOLD = 1 << 14;
+
+    /**
+     * 在有序数组arr中批量判断多个目标值是否存在。
+     *
+     * 解题思路：
+     * 逐个调用ifExist需要m次互相独立的二分查找，时间复杂度是O(mlogn)。
+     * 目标值升序时，后一个目标值的位置一定不小于前一个目标值的位置，因此可以像归并一样只向前扫描一遍：
+     * 从上一个位置开始指数查找(步长1、2、4...)确定范围，再在范围内二分查找。时间复杂度是O(mlog(n/m))，且访问位置单调递增，缓存友好。
+     *
+     * @param arr 有序数组
+     * @param probes 升序排列的目标值数组
+     * @return 第i位为true表示probes[i]存在
+     */
+    public static BitSet ifExistBatch(int[] arr,int[] probes){
+        //入参校验
+        if(!checkBatch(arr,probes)){
+            return new BitSet();
+        }
+        long[] words = new long[(probes.length + 63) >>> 6];
+        existRange(arr,probes,0,probes.length,words);
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * 在有序数组arr中批量判断多个目标值是否存在，按目标值分块并行查找。
+     * 每块从数组头部指数查找首个目标值的位置，再在块内归并扫描；块大小为64的倍数，各块写入互不重叠的位图字。
+     *
+     * @param arr 有序数组
+     * @param probes 升序排列的目标值数组
+     * @return 第i位为true表示probes[i]存在
+     */
+    public static BitSet parallelIfExistBatch(int[] arr,int[] probes){
+        //入参校验
+        if(!checkBatch(arr,probes)){
+            return new BitSet();
+        }
+        if(probes.length < PARALLEL_BATCH_THRESHOLD){
+            return ifExistBatch(arr,probes);
+        }
+        long[] words = new long[(probes.length + 63) >>> 6];
+        int chunkSize = batchChunkSize(probes.length);
+        int chunks = (probes.length + chunkSize - 1) / chunkSize;
+        IntStream.range(0,chunks).parallel().forEach(chunk ->
+                existRange(arr,probes,chunk * chunkSize,Math.min(probes.length,(chunk + 1) * chunkSize),words));
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * 在有序数组arr中批量查找每个目标值的上界位置，即第一个大于目标值的元素索引。
+     * 解题思路同{@link #ifExistBatch(int[], int[])}。
+     *
+     * @param arr 有序数组
+     * @param probes 升序排列的目标值数组
+     * @return 第i个元素为第一个大于probes[i]的元素索引；不存在则为arr.length。
+     */
+    public static int[] upperBoundBatch(int[] arr,int[] probes){
+        //入参校验
+        if(probes == null){
+            return new int[0];
+        }
+        int[] positions = new int[probes.length];
+        if(!checkBatch(arr,probes)){
+            return positions;
+        }
+        upperBoundRange(arr,probes,0,probes.length,positions);
+        return positions;
+    }
+
+    /**
+     * 在有序数组arr中批量查找每个目标值的上界位置，按目标值分块并行查找。
+     *
+     * @param arr 有序数组
+     * @param probes 升序排列的目标值数组
+     * @return 第i个元素为第一个大于probes[i]的元素索引；不存在则为arr.length。
+     */
+    public static int[] parallelUpperBoundBatch(int[] arr,int[] probes){
+        //入参校验
+        if(probes == null){
+            return new int[0];
+        }
+        if(probes.length < PARALLEL_BATCH_THRESHOLD){
+            return upperBoundBatch(arr,probes);
+        }
+        int[] positions = new int[probes.length];
+        if(!checkBatch(arr,probes)){
+            return positions;
+        }
+        int chunkSize = batchChunkSize(probes.length);
+        int chunks = (probes.length + chunkSize - 1) / chunkSize;
+        IntStream.range(0,chunks).parallel().forEach(chunk ->
+                upperBoundRange(arr,probes,chunk * chunkSize,Math.min(probes.length,(chunk + 1) * chunkSize),positions));
+        return positions;
+    }
+
+    /**
+     * 批量查找入参校验
+     * @param arr 有序数组
+     * @param probes 目标值数组
+     * @return 需要查找返回true；数组为空无需查找返回false。
+     */
+    private static boolean checkBatch(int[] arr,int[] probes){
+        if(probes == null){
+            return false;
+        }
+        for(int i = 1 ; i < probes.length ; i++){
+            if(probes[i] < probes[i-1]){
+                throw new IllegalArgumentException("Illegal probes: not sorted at index " + i);
+            }
+        }
+        return arr != null && arr.length != 0 && probes.length != 0;
+    }
+
+    /**
+     * 计算并行批量查找的分块大小：按CPU核数的4倍分块，并对齐到64
+     * @param length 目标值个数
+     * @return 分块大小
+     */
+    private static int batchChunkSize(int length){
+        int chunks = ForkJoinPool.getCommonPoolParallelism() * 4;
+        int chunkSize = (length + chunks - 1) / chunks;
+        return (chunkSize + 63) & ~63;
+    }
+
+    /**
+     * 归并扫描probes[from,to)，命中的目标值在位图中置位
+     * @param arr 有序数组
+     * @param probes 升序目标值数组
+     * @param from 起始索引(包含)
+     * @param to 终止索引(不包含)
+     * @param words 位图
+     */
+    private static void existRange(int[] arr,int[] probes,int from,int to,long[] words){
+        int pos = 0;
+        for(int i = from ; i < to ; i++){
+            //从上一个目标值的位置开始指数查找
+            pos = gallopLowerBound(arr,pos,probes[i]);
+            if(pos == arr.length){
+                //剩余目标值均大于数组全部元素
+                break;
+            }
+            if(arr[pos] == probes[i]){
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * 归并扫描probes[from,to)，记录每个目标值的上界位置
+     * @param arr 有序数组
+     * @param probes 升序目标值数组
+     * @param from 起始索引(包含)
+     * @param to 终止索引(不包含)
+     * @param positions 上界位置数组
+     */
+    private static void upperBoundRange(int[] arr,int[] probes,int from,int to,int[] positions){
+        int pos = 0;
+        for(int i = from ; i < to ; i++){
+            pos = gallopUpperBound(arr,pos,probes[i]);
+            positions[i] = pos;
+        }
+    }
+
+    /**
+     * 从索引start开始指数查找，返回第一个大于等于target的索引
+     * @param arr 有序数组
+     * @param start 起始索引，arr[start]之前的元素均小于target
+     * @param target 目标值
+     * @return 第一个大于等于target的索引；不存在则返回arr.length。
+     */
+    private static int gallopLowerBound(int[] arr,int start,int target){
+        int n = arr.length;
+        if(start >= n || arr[start] >= target){
+            return start;
+        }
+        //指数查找：arr[low] < target，直到arr[high] >= target或越界
+        int low = start;
+        int step = 1;
+        int high = start + 1;
+        while(high < n && arr[high] < target){
+            low = high;
+            //剩余长度不足两倍步长时直接到末尾，步长不会溢出
+            if(step > (n - start) >>> 1){
+                high = n;
+            }else{
+                step <<= 1;
+                high = start + step;
+            }
+        }
+        //二分查找(low,high]
+        low++;
+        while(low < high){
+            int middle = (low + high) >>> 1;
+            if(arr[middle] < target){
+                low = middle + 1;
+            }else{
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 从索引start开始指数查找，返回第一个大于target的索引
+     * @param arr 有序数组
+     * @param start 起始索引，arr[start]之前的元素均小于等于target
+     * @param target 目标值
+     * @return 第一个大于target的索引；不存在则返回arr.length。
+     */
+    private static int gallopUpperBound(int[] arr,int start,int target){
+        int n = arr.length;
+        if(start >= n || arr[start] > target){
+            return start;
+        }
+        //指数查找：arr[low] <= target，直到arr[high] > target或越界
+        int low = start;
+        int step = 1;
+        int high = start + 1;
+        while(high < n && arr[high] <= target){
+            low = high;
+            //剩余长度不足两倍步长时直接到末尾，步长不会溢出
+            if(step > (n - start) >>> 1){
+                high = n;
+            }else{
+                step <<= 1;
+                high = start + step;
+            }
+        }
+        //二分查找(low,high]
+        low++;
+        while(low < high){
+            int middle = (low + high) >>> 1;
+            if(arr[middle] <= target){
+                low = middle + 1;
+            }else{
+                high = middle;
+            }
+        }
+        return low;
+    }
 }
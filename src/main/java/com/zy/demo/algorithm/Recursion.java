@@ -1,5 +1,6 @@
 package com.zy.demo.algorithm;
 
+import java.math.BigInteger;
 import java.util.ArrayDeque;
 
 /**
@@ -8,6 +9,25 @@ import java.util.ArrayDeque;
  */
 public class Recursion {
 
+    //long能表示的最大斐波那契数列位置：f(92)=7540113804746346429
+    private static final int MAX_LONG_FIBONACCI = 92;
+
+    //f(0)~f(92)预计算表
+    private static final long[] LONG_FIBONACCI = new long[MAX_LONG_FIBONACCI + 1];
+
+    //大数结果缓存容量
+    private static final int FIBONACCI_CACHE_SIZE = 128;
+
+    //大数结果缓存：多线程共享，达到容量后淘汰不常用的结果
+    private static final Memoizer<BigInteger> FIBONACCI_CACHE = new Memoizer<>(n -> fastDoubling((int) n),FIBONACCI_CACHE_SIZE);
+
+    static {
+        LONG_FIBONACCI[1] = 1;
+        for(int i = 2 ; i <= MAX_LONG_FIBONACCI ; i++){
+            LONG_FIBONACCI[i] = LONG_FIBONACCI[i-2] + LONG_FIBONACCI[i-1];
+        }
+    }
+
     /**
      * 汉诺塔问题：假设有x、y、z三根柱子，其中x上从小到大放置n个大小各不相同的圆盘(最小圆盘在柱子顶部，
      * 最大圆盘在柱子底部)，y和z暂时未放置圆盘。现要将x上的圆盘移动到z上，要求每次只能移动
@@ -26,6 +46,8 @@ public class Recursion {
      * 数据结构：
      * 由于圆盘总是从顶部取走，符合后进先出原则，所以选用栈结构。
      *
+     * 圆盘较多时只需要移动步骤，使用{@link HanoiMoves}惰性生成，不保存任何移动。
+     *
      * @param x x柱子，大圆盘在栈底，小圆盘在栈顶，圆盘大小暂定由正整数值表示。
      * @param z z柱子，按照从小到大的顺序压栈。
      * @return z柱子
@@ -115,4 +137,80 @@ public class Recursion {
         //求和
         return sumResult(nx-2) + sumResult(nx-1);
     }
+
+    /**
+     * 输入x，输出斐波那契数列中第x位的元素(long)。
+     *
+     * 优化思路：
+     * long最多只能表示到f(92)，全部结果只有93个，类加载时迭代预计算，查询直接查表。
+     *
+     * 时间复杂度：O(1)
+     *
+     * @param nx 输入x，0<=nx<=92
+     * @return 斐波那契数列第x位的元素
+     */
+    public static long fibonacciLong(int nx){
+        //入参校验
+        if(nx < 0 || nx > MAX_LONG_FIBONACCI){
+            throw new IllegalArgumentException("Illegal nx=" + nx + ", use fibonacciBig when nx > " + MAX_LONG_FIBONACCI);
+        }
+        return LONG_FIBONACCI[nx];
+    }
+
+    /**
+     * 输入x，输出斐波那契数列中第x位的元素(BigInteger)。
+     *
+     * 快速倍增法：
+     * f(2k)   = f(k) * (2f(k+1) - f(k))
+     * f(2k+1) = f(k)^2 + f(k+1)^2
+     * 从nx的二进制最高位开始，每处理1位，由(f(k),f(k+1))得到(f(2k),f(2k+1))，当前位为1时再前进一步得到(f(2k+1),f(2k+2))。
+     * 1、nx的高位前缀不超过91时，(f(k),f(k+1))直接查long预计算表，省去前几轮大数运算。
+     * 2、结果放入共享的有界缓存({@link Memoizer})，重复查询直接返回。
+     *
+     * 时间复杂度：O(logn)次大数乘法
+     *
+     * @param nx 输入x，nx>=0
+     * @return 斐波那契数列第x位的元素
+     */
+    public static BigInteger fibonacciBig(int nx){
+        //入参校验
+        if(nx < 0){
+            throw new IllegalArgumentException("Illegal nx=" + nx);
+        }
+        if(nx <= MAX_LONG_FIBONACCI){
+            return BigInteger.valueOf(LONG_FIBONACCI[nx]);
+        }
+        return FIBONACCI_CACHE.get(nx);
+    }
+
+    /**
+     * 快速倍增法计算斐波那契数列第x位的元素
+     * @param nx 输入x，nx>92
+     * @return 斐波那契数列第x位的元素
+     */
+    private static BigInteger fastDoubling(int nx){
+        //找最长的高位前缀k，使f(k+1)仍可查表
+        int shift = 32 - Integer.numberOfLeadingZeros(nx);
+        while(shift > 0 && (nx >>> (shift-1)) < MAX_LONG_FIBONACCI){
+            shift--;
+        }
+        int k = nx >>> shift;
+        BigInteger a = BigInteger.valueOf(LONG_FIBONACCI[k]);
+        BigInteger b = BigInteger.valueOf(LONG_FIBONACCI[k+1]);
+        //逐位倍增
+        for(int bit = shift - 1 ; bit >= 0 ; bit--){
+            //f(2k)
+            BigInteger c = a.multiply(b.shiftLeft(1).subtract(a));
+            //f(2k+1)
+            BigInteger d = a.multiply(a).add(b.multiply(b));
+            if(((nx >>> bit) & 1) == 0){
+                a = c;
+                b = d;
+            }else{
+                a = d;
+                b = c.add(d);
+            }
+        }
+        return a;
+    }
 }
@@ -1,6 +1,12 @@
 package com.zy.demo.algorithm;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PrimitiveIterator;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
 
 /**
  * 排序
@@ -208,6 +214,213 @@ public class Sort {
         }
     }
 
+    /**
+     * 并行归并排序。
+     *
+     * 原理：
+     * 基于ForkJoinPool将数组递归二分为子任务并行排序，子数组长度不大于并行阈值时退化为串行归并排序。
+     * 合并阶段同样并行：取较长子数组的中位元素，在较短子数组中二分查找其插入位置，从而把一次合并拆分为两个互不相交的子合并。
+     * 原数组与暂存数组在每层递归中交替充当数据源与合并目标，全程只分配1个与原数组等长的暂存数组，且无需逐层拷贝回原数组。
+     *
+     * 性能：
+     * 时间复杂度：O(nlogn) --总工作量与串行归并排序相同，理想情况下耗时约为O(nlogn/p)，p为CPU核数。
+     * 空间复杂度：O(n) --新建数组用于存储中间排序结果
+     * 稳定性：稳定 --同一个数据在排序前后的相对位置不变。
+     *
+     * @param arr 原数组
+     * @param parallelismThreshold 并行阈值，子数组长度不大于该值时串行排序
+     * @return 排序后数组(升序)
+     */
+    public static int[] parallelMergeSort(int[] arr,int parallelismThreshold){
+        //入参校验
+        if(arr == null || arr.length == 0){
+            return arr;
+        }
+        if(parallelismThreshold < 1){
+            throw new IllegalArgumentException("Illegal parallelismThreshold=" + parallelismThreshold);
+        }
+        //数组长度不大于并行阈值，直接串行排序
+        if(arr.length <= parallelismThreshold){
+            return mergeSort(arr);
+        }
+        //创建数组用于暂存排序结果
+        int[] result = new int[arr.length];
+        //并行排序，排序结果写回原数组
+        ForkJoinPool.commonPool().invoke(new MergeSortTask(arr,arr,result,0,arr.length-1,parallelismThreshold));
+        return arr;
+    }
+
+    /**
+     * 并行归并排序任务：将原数组[low,high]区间排序后写入dst[low,high]，src作为本层合并的数据源。
+     * 叶子任务执行前原数组区间不会被修改，叶子任务直接排序原数组区间并按需拷贝到dst。
+     */
+    private static final class MergeSortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        //原数组
+        private final int[] origin;
+        //排序结果目标数组
+        private final int[] dst;
+        //合并数据源数组
+        private final int[] src;
+        //低位索引
+        private final int low;
+        //高位索引
+        private final int high;
+        //并行阈值
+        private final int threshold;
+
+        MergeSortTask(int[] origin,int[] dst,int[] src,int low,int high,int threshold){
+            this.origin = origin;
+            this.dst = dst;
+            this.src = src;
+            this.low = low;
+            this.high = high;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            //子数组长度不大于并行阈值，串行排序
+            if(high - low < threshold){
+                //原数组区间在叶子任务执行前不会被其它任务修改，直接在原数组上串行排序
+                doMergeSortBinary(origin,src == origin ? dst : src,low,high);
+                //排序结果不在目标数组时，拷贝到目标数组
+                if(dst != origin){
+                    System.arraycopy(origin,low,dst,low,high-low+1);
+                }
+                return;
+            }
+            //计算二分索引
+            int mid = (low+high) >>> 1;
+            //左右子数组并行排序，结果写入src，作为本层合并的数据源
+            invokeAll(new MergeSortTask(origin,src,dst,low,mid,threshold),
+                    new MergeSortTask(origin,src,dst,mid+1,high,threshold));
+            //并行合并src的左右有序子数组到dst
+            new MergeTask(src,low,mid,mid+1,high,dst,low,threshold).compute();
+        }
+    }
+
+    /**
+     * 并行合并任务：将有序区间src[leftLow,leftHigh]与src[rightLow,rightHigh]合并到dst[index]起始的位置。
+     */
+    private static final class MergeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        //数据源数组
+        private final int[] src;
+        //左子数组低位索引
+        private final int leftLow;
+        //左子数组高位索引
+        private final int leftHigh;
+        //右子数组低位索引
+        private final int rightLow;
+        //右子数组高位索引
+        private final int rightHigh;
+        //目标数组
+        private final int[] dst;
+        //目标数组起始索引
+        private final int index;
+        //并行阈值
+        private final int threshold;
+
+        MergeTask(int[] src,int leftLow,int leftHigh,int rightLow,int rightHigh,int[] dst,int index,int threshold){
+            this.src = src;
+            this.leftLow = leftLow;
+            this.leftHigh = leftHigh;
+            this.rightLow = rightLow;
+            this.rightHigh = rightHigh;
+            this.dst = dst;
+            this.index = index;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            int leftLen = leftHigh - leftLow + 1;
+            int rightLen = rightHigh - rightLow + 1;
+            //待合并元素数量不大于并行阈值时串行合并(至少3个元素才拆分，保证拆分后两部分均非空)
+            if(leftLen + rightLen <= Math.max(threshold,2)){
+                int i = leftLow;
+                int j = rightLow;
+                int k = index;
+                while(i <= leftHigh && j <= rightHigh){
+                    //升序排列，相等时优先取左子数组元素以保证稳定性
+                    if(src[i] <= src[j]){
+                        dst[k++] = src[i++];
+                    }else{
+                        dst[k++] = src[j++];
+                    }
+                }
+                if(i <= leftHigh){
+                    System.arraycopy(src,i,dst,k,leftHigh-i+1);
+                }else if(j <= rightHigh){
+                    System.arraycopy(src,j,dst,k,rightHigh-j+1);
+                }
+                return;
+            }
+            //拆分点(不包含)：左子数组[leftLow,leftMid)与右子数组[rightLow,rightMid)合并为前半部分，其余合并为后半部分
+            int leftMid;
+            int rightMid;
+            if(leftLen >= rightLen){
+                //取左子数组中位元素(归入后半部分)，在右子数组中查找第一个大于等于它的位置
+                leftMid = (leftLow+leftHigh+1) >>> 1;
+                rightMid = lowerBound(src,rightLow,rightHigh+1,src[leftMid]);
+            }else{
+                //取右子数组中位元素(归入前半部分)，在左子数组中查找第一个大于它的位置
+                int middle = (rightLow+rightHigh) >>> 1;
+                leftMid = upperBound(src,leftLow,leftHigh+1,src[middle]);
+                rightMid = middle + 1;
+            }
+            //前半部分长度即后半部分在目标数组中的起始偏移
+            int firstLen = (leftMid-leftLow) + (rightMid-rightLow);
+            invokeAll(new MergeTask(src,leftLow,leftMid-1,rightLow,rightMid-1,dst,index,threshold),
+                    new MergeTask(src,leftMid,leftHigh,rightMid,rightHigh,dst,index+firstLen,threshold));
+        }
+    }
+
+    /**
+     * 在有序区间arr[from,to)中查找第一个大于等于target的索引
+     * @param arr 有序数组
+     * @param from 起始索引(包含)
+     * @param to 终止索引(不包含)
+     * @param target 目标值
+     * @return 第一个大于等于target的索引；不存在则返回to。
+     */
+    private static int lowerBound(int[] arr,int from,int to,int target){
+        while(from < to){
+            int mid = (from+to) >>> 1;
+            if(arr[mid] < target){
+                from = mid + 1;
+            }else{
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * 在有序区间arr[from,to)中查找第一个大于target的索引
+     * @param arr 有序数组
+     * @param from 起始索引(包含)
+     * @param to 终止索引(不包含)
+     * @param target 目标值
+     * @return 第一个大于target的索引；不存在则返回to。
+     */
+    private static int upperBound(int[] arr,int from,int to,int target){
+        while(from < to){
+            int mid = (from+to) >>> 1;
+            if(arr[mid] <= target){
+                from = mid + 1;
+            }else{
+                to = mid;
+            }
+        }
+        return from;
+    }
+
     /**
      * 快速排序
      *
@@ -279,4 +492,1169 @@ public class Sort {
         //递归快排右区间
         doQuickRecursion(arr,j+1,high);
     }
+
+    //内省排序中切换为插入排序的子数组长度阈值
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    //内省排序中使用九数取中(ninther)选取分区点的子数组长度阈值
+    private static final int NINTHER_THRESHOLD = 128;
+
+    /**
+     * 内省排序(introsort)。
+     *
+     * 原理：
+     * 以快速排序为主体，并针对快速排序的退化场景做了以下改进：
+     * 1、三数取中(大数组九数取中)选取分区点，避免有序或逆序数组退化。
+     * 2、三路分区，将数组划分为小于、等于、大于分区点的三个区间，等于分区点的元素不再参与后续排序，大量重复元素时接近O(n)。
+     * 3、子数组长度不大于16时改用插入排序，减少小数组的分区开销。
+     * 4、分区深度超过2logn时改用堆排序，保证最坏时间复杂度为O(nlogn)。
+     * 5、使用显式栈代替递归，每次先处理较短区间、较长区间入栈，栈深度不超过logn，不会栈溢出。
+     *
+     * 性能：
+     * 时间复杂度：O(nlogn) --最坏情况由堆排序兜底
+     * 空间复杂度：O(logn) --显式栈
+     * 稳定性：不稳定 --同一个数据在排序前后的相对位置改变
+     *
+     * @param arr 排序前数组
+     * @return 排序后数组(升序)
+     */
+    public static int[] introSort(int[] arr){
+        //入参校验
+        if(arr == null || arr.length == 0){
+            return arr;
+        }
+        //分区深度上限2logn
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(arr.length));
+        //显式栈，每个区间占用3个元素：低位索引、高位索引、剩余分区深度
+        int[] stack = new int[3 * 32];
+        //栈顶指针
+        int top = 0;
+        //当前处理的区间
+        int low = 0;
+        int high = arr.length - 1;
+        int depth = depthLimit;
+        while(true){
+            if(high - low < INSERTION_SORT_THRESHOLD){
+                //小数组插入排序
+                insertionSort(arr,low,high);
+            }else if(depth == 0){
+                //分区深度超限，堆排序兜底
+                heapSort(arr,low,high);
+            }else{
+                depth--;
+                //选取分区点
+                int pivot = selectPivot(arr,low,high);
+                //三路分区：[low,lt)小于分区点，[lt,gt]等于分区点，(gt,high]大于分区点
+                int lt = low;
+                int gt = high;
+                int i = low;
+                while(i <= gt){
+                    int value = arr[i];
+                    if(value < pivot){
+                        arr[i++] = arr[lt];
+                        arr[lt++] = value;
+                    }else if(value > pivot){
+                        arr[i] = arr[gt];
+                        arr[gt--] = value;
+                    }else{
+                        i++;
+                    }
+                }
+                //较长区间入栈，继续处理较短区间
+                if(lt - low < high - gt){
+                    stack[top++] = gt + 1;
+                    stack[top++] = high;
+                    stack[top++] = depth;
+                    high = lt - 1;
+                }else{
+                    stack[top++] = low;
+                    stack[top++] = lt - 1;
+                    stack[top++] = depth;
+                    low = gt + 1;
+                }
+                continue;
+            }
+            //栈为空则排序完成
+            if(top == 0){
+                break;
+            }
+            //出栈
+            depth = stack[--top];
+            high = stack[--top];
+            low = stack[--top];
+        }
+        return arr;
+    }
+
+    /**
+     * 选取分区点：小数组三数取中，大数组九数取中
+     * @param arr 数组
+     * @param low 低位索引
+     * @param high 高位索引
+     * @return 分区点元素值
+     */
+    private static int selectPivot(int[] arr,int low,int high){
+        int mid = (low+high) >>> 1;
+        if(high - low + 1 < NINTHER_THRESHOLD){
+            return medianOfThree(arr[low],arr[mid],arr[high]);
+        }
+        int step = (high - low + 1) >>> 3;
+        return medianOfThree(
+                medianOfThree(arr[low],arr[low+step],arr[low+2*step]),
+                medianOfThree(arr[mid-step],arr[mid],arr[mid+step]),
+                medianOfThree(arr[high-2*step],arr[high-step],arr[high]));
+    }
+
+    /**
+     * 三数取中
+     * @return 三个数值的中位数
+     */
+    private static int medianOfThree(int a,int b,int c){
+        if(a < b){
+            return b < c ? b : (a < c ? c : a);
+        }
+        return a < c ? a : (b < c ? c : b);
+    }
+
+    /**
+     * 对区间arr[low,high]做插入排序(升序)
+     * @param arr 数组
+     * @param low 低位索引
+     * @param high 高位索引
+     */
+    private static void insertionSort(int[] arr,int low,int high){
+        for(int i = low + 1 ; i <= high ; i++){
+            int value = arr[i];
+            int j = i - 1;
+            //已排序区间中大于当前值的元素后移
+            while(j >= low && arr[j] > value){
+                arr[j+1] = arr[j];
+                j--;
+            }
+            arr[j+1] = value;
+        }
+    }
+
+    /**
+     * 对区间arr[low,high]做堆排序(升序)
+     * @param arr 数组
+     * @param low 低位索引
+     * @param high 高位索引
+     */
+    private static void heapSort(int[] arr,int low,int high){
+        int len = high - low + 1;
+        //自底向上建大顶堆
+        for(int i = (len >>> 1) - 1 ; i >= 0 ; i--){
+            siftDown(arr,low,i,len);
+        }
+        //依次将堆顶最大值交换到区间尾部
+        for(int end = len - 1 ; end > 0 ; end--){
+            int tmp = arr[low];
+            arr[low] = arr[low+end];
+            arr[low+end] = tmp;
+            siftDown(arr,low,0,end);
+        }
+    }
+
+    /**
+     * 大顶堆下沉
+     * @param arr 数组
+     * @param offset 堆在数组中的起始索引
+     * @param i 下沉结点在堆中的索引
+     * @param len 堆的元素个数
+     */
+    private static void siftDown(int[] arr,int offset,int i,int len){
+        int value = arr[offset+i];
+        int child;
+        while((child = (i << 1) + 1) < len){
+            //取较大的子结点
+            if(child + 1 < len && arr[offset+child] < arr[offset+child+1]){
+                child++;
+            }
+            if(value >= arr[offset+child]){
+                break;
+            }
+            arr[offset+i] = arr[offset+child];
+            i = child;
+        }
+        arr[offset+i] = value;
+    }
+
+    //基数排序每趟处理的位数(按字节分桶)
+    private static final int RADIX_BITS = 8;
+
+    //基数排序的桶数量
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    //并行基数排序的最小数组长度，小于该值时串行排序
+    private static final int PARALLEL_RADIX_THRESHOLD = 1 << 16;
+
+    /**
+     * 基数排序(LSD，按字节从低位到高位分桶)。
+     *
+     * 原理：
+     * 将int按字节拆分为4位"数字"，从最低字节开始，每趟按当前字节做稳定的计数排序，4趟后整体有序。
+     * 1、一次遍历同时统计4个字节的直方图，某字节在所有元素中取值相同时(例如id的高位字节)直接跳过该趟。
+     * 2、有符号数处理：最高字节翻转符号位，使负数排在正数之前。
+     *
+     * 性能：
+     * 时间复杂度：O(n) --最多4趟线性遍历
+     * 空间复杂度：O(n) --新建数组作为分桶目标
+     * 稳定性：稳定 --同一个数据在排序前后的相对位置不变。
+     *
+     * @param arr 排序前数组
+     * @return 排序后数组(升序)
+     */
+    public static int[] radixSort(int[] arr){
+        //入参校验
+        if(arr == null || arr.length < 2){
+            return arr;
+        }
+        int n = arr.length;
+        //一次遍历统计全部字节的直方图
+        int[] counts = new int[4 * RADIX];
+        for(int i = 0 ; i < n ; i++){
+            int key = arr[i] ^ Integer.MIN_VALUE;
+            counts[key & 0xFF]++;
+            counts[RADIX + ((key >>> 8) & 0xFF)]++;
+            counts[2*RADIX + ((key >>> 16) & 0xFF)]++;
+            counts[3*RADIX + (key >>> 24)]++;
+        }
+        int[] src = arr;
+        int[] dst = new int[n];
+        for(int pass = 0 ; pass < 4 ; pass++){
+            int base = pass * RADIX;
+            //当前字节取值全部相同，跳过该趟
+            if(isConstantDigit(counts,base,n)){
+                continue;
+            }
+            //直方图转换为各桶起始位置
+            toOffsets(counts,base);
+            //按当前字节稳定分桶
+            int shift = pass * RADIX_BITS;
+            for(int i = 0 ; i < n ; i++){
+                int value = src[i];
+                dst[counts[base + (((value ^ Integer.MIN_VALUE) >>> shift) & 0xFF)]++] = value;
+            }
+            int[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        //排序结果不在原数组时拷贝回原数组
+        if(src != arr){
+            System.arraycopy(src,0,arr,0,n);
+        }
+        return arr;
+    }
+
+    /**
+     * 基数排序(LSD，按字节从低位到高位分桶)。
+     *
+     * 原理同{@link #radixSort(int[])}，long按字节拆分为8位"数字"。
+     *
+     * 性能：
+     * 时间复杂度：O(n) --最多8趟线性遍历
+     * 空间复杂度：O(n) --新建数组作为分桶目标
+     * 稳定性：稳定 --同一个数据在排序前后的相对位置不变。
+     *
+     * @param arr 排序前数组
+     * @return 排序后数组(升序)
+     */
+    public static long[] radixSort(long[] arr){
+        //入参校验
+        if(arr == null || arr.length < 2){
+            return arr;
+        }
+        int n = arr.length;
+        //一次遍历统计全部字节的直方图
+        int[] counts = new int[8 * RADIX];
+        for(int i = 0 ; i < n ; i++){
+            long key = arr[i] ^ Long.MIN_VALUE;
+            for(int pass = 0 ; pass < 8 ; pass++){
+                counts[pass * RADIX + (int) ((key >>> (pass * RADIX_BITS)) & 0xFF)]++;
+            }
+        }
+        long[] src = arr;
+        long[] dst = new long[n];
+        for(int pass = 0 ; pass < 8 ; pass++){
+            int base = pass * RADIX;
+            //当前字节取值全部相同，跳过该趟
+            if(isConstantDigit(counts,base,n)){
+                continue;
+            }
+            //直方图转换为各桶起始位置
+            toOffsets(counts,base);
+            //按当前字节稳定分桶
+            int shift = pass * RADIX_BITS;
+            for(int i = 0 ; i < n ; i++){
+                long value = src[i];
+                dst[counts[base + (int) (((value ^ Long.MIN_VALUE) >>> shift) & 0xFF)]++] = value;
+            }
+            long[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        //排序结果不在原数组时拷贝回原数组
+        if(src != arr){
+            System.arraycopy(src,0,arr,0,n);
+        }
+        return arr;
+    }
+
+    /**
+     * 并行基数排序。
+     *
+     * 原理：
+     * 将数组按CPU核数切分为若干块，每趟分桶分为三步：
+     * 1、各块并行统计当前字节的直方图。
+     * 2、按"桶优先、块次之"的顺序计算每个块在每个桶中的写入起始位置。
+     * 3、各块并行写入各自的位置区间，块内顺序不变，因此整体仍是稳定排序。
+     * 数组长度小于65536时退化为串行基数排序。
+     *
+     * 性能：
+     * 时间复杂度：O(n) --理想情况下耗时约为O(n/p)，p为CPU核数。
+     * 空间复杂度：O(n) --新建数组作为分桶目标
+     * 稳定性：稳定 --同一个数据在排序前后的相对位置不变。
+     *
+     * @param arr 排序前数组
+     * @return 排序后数组(升序)
+     */
+    public static int[] parallelRadixSort(int[] arr){
+        //入参校验
+        if(arr == null || arr.length < PARALLEL_RADIX_THRESHOLD){
+            return radixSort(arr);
+        }
+        int n = arr.length;
+        int chunks = radixChunks(n);
+        int chunkSize = (n + chunks - 1) / chunks;
+        //各块的直方图，第chunk块的第b个桶位于chunk*RADIX+b
+        int[] counts = new int[chunks * RADIX];
+        int[] src = arr;
+        int[] dst = new int[n];
+        for(int pass = 0 ; pass < 4 ; pass++){
+            final int shift = pass * RADIX_BITS;
+            final int[] from = src;
+            final int[] to = dst;
+            Arrays.fill(counts,0);
+            //各块并行统计当前字节的直方图
+            IntStream.range(0,chunks).parallel().forEach(chunk -> {
+                int base = chunk * RADIX;
+                int end = Math.min(n,(chunk + 1) * chunkSize);
+                for(int i = chunk * chunkSize ; i < end ; i++){
+                    counts[base + (((from[i] ^ Integer.MIN_VALUE) >>> shift) & 0xFF)]++;
+                }
+            });
+            //当前字节取值全部相同，跳过该趟
+            if(!toChunkOffsets(counts,chunks,n)){
+                continue;
+            }
+            //各块并行写入各自的位置区间
+            IntStream.range(0,chunks).parallel().forEach(chunk -> {
+                int base = chunk * RADIX;
+                int end = Math.min(n,(chunk + 1) * chunkSize);
+                for(int i = chunk * chunkSize ; i < end ; i++){
+                    int value = from[i];
+                    to[counts[base + (((value ^ Integer.MIN_VALUE) >>> shift) & 0xFF)]++] = value;
+                }
+            });
+            src = to;
+            dst = from;
+        }
+        //排序结果不在原数组时拷贝回原数组
+        if(src != arr){
+            System.arraycopy(src,0,arr,0,n);
+        }
+        return arr;
+    }
+
+    /**
+     * 并行基数排序。
+     *
+     * 原理同{@link #parallelRadixSort(int[])}，long按字节拆分为8位"数字"。
+     *
+     * 性能：
+     * 时间复杂度：O(n) --理想情况下耗时约为O(n/p)，p为CPU核数。
+     * 空间复杂度：O(n) --新建数组作为分桶目标
+     * 稳定性：稳定 --同一个数据在排序前后的相对位置不变。
+     *
+     * @param arr 排序前数组
+     * @return 排序后数组(升序)
+     */
+    public static long[] parallelRadixSort(long[] arr){
+        //入参校验
+        if(arr == null || arr.length < PARALLEL_RADIX_THRESHOLD){
+            return radixSort(arr);
+        }
+        int n = arr.length;
+        int chunks = radixChunks(n);
+        int chunkSize = (n + chunks - 1) / chunks;
+        //各块的直方图，第chunk块的第b个桶位于chunk*RADIX+b
+        int[] counts = new int[chunks * RADIX];
+        long[] src = arr;
+        long[] dst = new long[n];
+        for(int pass = 0 ; pass < 8 ; pass++){
+            final int shift = pass * RADIX_BITS;
+            final long[] from = src;
+            final long[] to = dst;
+            Arrays.fill(counts,0);
+            //各块并行统计当前字节的直方图
+            IntStream.range(0,chunks).parallel().forEach(chunk -> {
+                int base = chunk * RADIX;
+                int end = Math.min(n,(chunk + 1) * chunkSize);
+                for(int i = chunk * chunkSize ; i < end ; i++){
+                    counts[base + (int) (((from[i] ^ Long.MIN_VALUE) >>> shift) & 0xFF)]++;
+                }
+            });
+            //当前字节取值全部相同，跳过该趟
+            if(!toChunkOffsets(counts,chunks,n)){
+                continue;
+            }
+            //各块并行写入各自的位置区间
+            IntStream.range(0,chunks).parallel().forEach(chunk -> {
+                int base = chunk * RADIX;
+                int end = Math.min(n,(chunk + 1) * chunkSize);
+                for(int i = chunk * chunkSize ; i < end ; i++){
+                    long value = from[i];
+                    to[counts[base + (int) (((value ^ Long.MIN_VALUE) >>> shift) & 0xFF)]++] = value;
+                }
+            });
+            src = to;
+            dst = from;
+        }
+        //排序结果不在原数组时拷贝回原数组
+        if(src != arr){
+            System.arraycopy(src,0,arr,0,n);
+        }
+        return arr;
+    }
+
+    /**
+     * 判断某一趟的直方图是否只有1个非空桶
+     * @param counts 直方图
+     * @param base 当前趟直方图的起始索引
+     * @param n 元素个数
+     * @return 只有1个非空桶返回true；否则返回false。
+     */
+    private static boolean isConstantDigit(int[] counts,int base,int n){
+        for(int b = 0 ; b < RADIX ; b++){
+            int count = counts[base + b];
+            if(count != 0){
+                return count == n;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 将某一趟的直方图原地转换为各桶的起始位置(前缀和)
+     * @param counts 直方图
+     * @param base 当前趟直方图的起始索引
+     */
+    private static void toOffsets(int[] counts,int base){
+        int sum = 0;
+        for(int b = 0 ; b < RADIX ; b++){
+            int count = counts[base + b];
+            counts[base + b] = sum;
+            sum += count;
+        }
+    }
+
+    /**
+     * 将各块的直方图原地转换为各块在各桶中的写入起始位置，顺序为桶优先、块次之。
+     * @param counts 各块的直方图
+     * @param chunks 块数量
+     * @param n 元素个数
+     * @return 当前字节取值全部相同时返回false，表示可以跳过该趟；否则返回true。
+     */
+    private static boolean toChunkOffsets(int[] counts,int chunks,int n){
+        int sum = 0;
+        for(int b = 0 ; b < RADIX ; b++){
+            int bucket = 0;
+            for(int chunk = 0 ; chunk < chunks ; chunk++){
+                int index = chunk * RADIX + b;
+                int count = counts[index];
+                counts[index] = sum;
+                sum += count;
+                bucket += count;
+            }
+            if(bucket == n){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 计算并行基数排序的分块数量
+     * @param n 元素个数
+     * @return 分块数量
+     */
+    private static int radixChunks(int n){
+        //每个块至少包含PARALLEL_RADIX_THRESHOLD/4个元素，避免直方图开销超过分桶收益
+        int chunks = ForkJoinPool.getCommonPoolParallelism() * 4;
+        return Math.max(1,Math.min(chunks,n / (PARALLEL_RADIX_THRESHOLD >>> 2)));
+    }
+
+    /**
+     * 自适应顺串归并排序(TimSort)。
+     *
+     * 原理：
+     * 识别数组中天然存在的升序/降序顺串，过短的顺串用二分插入排序补齐，再按栈约束逐对归并；
+     * 归并时某个顺串连续胜出多次则进入飞奔模式，用指数查找整段拷贝。
+     * JDK的{@link Arrays#sort(Object[], Comparator)}即为该算法，直接使用，不再重复实现。
+     * 直接对对象数组排序，无需把记录拷贝为基本类型的排序键再映射回去。
+     *
+     * 性能：
+     * 时间复杂度：O(nlogn) --基本有序的数组接近O(n)
+     * 空间复杂度：O(n) --暂存数组最多为数组长度的一半
+     * 稳定性：稳定 --同一个数据在排序前后的相对位置不变。
+     *
+     * @param arr 排序前数组
+     * @param c 比较器
+     * @param <T> 元素类型
+     * @return 排序后数组(按比较器升序)
+     */
+    public static <T> T[] sort(T[] arr,Comparator<? super T> c){
+        //入参校验
+        if(c == null){
+            throw new IllegalArgumentException("Illegal comparator!");
+        }
+        if(arr == null || arr.length < 2){
+            return arr;
+        }
+        Arrays.sort(arr,c);
+        return arr;
+    }
+
+    /**
+     * 查找数组中第k小的元素(k从0开始)，即升序排序后索引k处的元素。
+     *
+     * 原理：
+     * 内省选择(introselect)：与快速排序相同地三路分区，但每次只进入包含索引k的一侧区间，期望时间复杂度为O(n)。
+     * 分区深度超过2logn时，改用中位数的中位数(median of medians)选取分区点，保证每次分区至少排除30%的元素，最坏时间复杂度为O(n)。
+     * 执行后数组被部分排序：arr[k]为第k小的元素，其左侧元素均不大于它，右侧元素均不小于它。
+     *
+     * 性能：
+     * 时间复杂度：O(n)
+     * 空间复杂度：O(logn) --中位数的中位数递归选取分区点
+     *
+     * @param arr 数组
+     * @param k 索引，取值范围[0,arr.length)
+     * @return 第k小的元素
+     */
+    public static int select(int[] arr,int k){
+        //入参校验
+        if(arr == null || arr.length == 0){
+            throw new IllegalArgumentException("Illegal array!");
+        }
+        if(k < 0 || k >= arr.length){
+            throw new IllegalArgumentException("Illegal k=" + k);
+        }
+        return selectRange(arr,0,arr.length-1,k);
+    }
+
+    /**
+     * 查找数组中最大的k个元素。
+     *
+     * 原理：
+     * 先用内省选择将最大的k个元素划分到数组尾部，再只对这k个元素排序，无需对整个数组排序。
+     * 执行后数组被部分排序。
+     *
+     * 性能：
+     * 时间复杂度：O(n+klogk)
+     * 空间复杂度：O(k) --新建数组存储结果
+     *
+     * @param arr 数组
+     * @param k 元素个数，大于数组长度时返回全部元素
+     * @return 最大的k个元素(降序)
+     */
+    public static int[] topK(int[] arr,int k){
+        //入参校验
+        if(arr == null || arr.length == 0 || k <= 0){
+            return new int[0];
+        }
+        k = Math.min(k,arr.length);
+        int from = arr.length - k;
+        //最大的k个元素划分到[from,arr.length)
+        if(from > 0){
+            selectRange(arr,0,arr.length-1,from);
+        }
+        int[] result = Arrays.copyOfRange(arr,from,arr.length);
+        introSort(result);
+        //升序翻转为降序
+        for(int i = 0 , j = k - 1 ; i < j ; i++ , j--){
+            int tmp = result[i];
+            result[i] = result[j];
+            result[j] = tmp;
+        }
+        return result;
+    }
+
+    /**
+     * 流式查找最大的k个元素，适用于无法一次性加载到内存的数据。
+     *
+     * 原理：
+     * 维护容量为k的小顶堆，堆顶是当前第k大的元素；新元素大于堆顶时替换堆顶并下沉，否则丢弃。
+     *
+     * 性能：
+     * 时间复杂度：O(nlogk)
+     * 空间复杂度：O(k) --只保留k个元素
+     *
+     * @param iterator 数据迭代器
+     * @param k 元素个数
+     * @return 最大的k个元素(降序)，数据不足k个时返回全部元素
+     */
+    public static int[] topK(PrimitiveIterator.OfInt iterator,int k){
+        //入参校验
+        if(iterator == null || k <= 0){
+            return new int[0];
+        }
+        //小顶堆
+        int[] heap = new int[k];
+        int size = 0;
+        while(iterator.hasNext()){
+            int value = iterator.nextInt();
+            if(size < k){
+                //堆未满，上浮
+                int i = size++;
+                while(i > 0){
+                    int parent = (i - 1) >>> 1;
+                    if(heap[parent] <= value){
+                        break;
+                    }
+                    heap[i] = heap[parent];
+                    i = parent;
+                }
+                heap[i] = value;
+            }else if(value > heap[0]){
+                //替换堆顶并下沉
+                heap[0] = value;
+                minHeapSiftDown(heap,0,size);
+            }
+        }
+        //依次弹出堆顶(当前最小值)，从结果数组尾部向前填充，得到降序结果
+        int[] result = new int[size];
+        for(int end = size - 1 ; end >= 0 ; end--){
+            result[end] = heap[0];
+            heap[0] = heap[end];
+            minHeapSiftDown(heap,0,end);
+        }
+        return result;
+    }
+
+    /**
+     * 流式查找最大的k个元素
+     * @param stream 数据流
+     * @param k 元素个数
+     * @return 最大的k个元素(降序)，数据不足k个时返回全部元素
+     * @see #topK(PrimitiveIterator.OfInt, int)
+     */
+    public static int[] topK(IntStream stream,int k){
+        //入参校验
+        if(stream == null){
+            return new int[0];
+        }
+        return topK(stream.iterator(),k);
+    }
+
+    /**
+     * 小顶堆下沉
+     * @param heap 堆
+     * @param i 下沉结点索引
+     * @param len 堆的元素个数
+     */
+    private static void minHeapSiftDown(int[] heap,int i,int len){
+        int value = heap[i];
+        int child;
+        while((child = (i << 1) + 1) < len){
+            //取较小的子结点
+            if(child + 1 < len && heap[child+1] < heap[child]){
+                child++;
+            }
+            if(value <= heap[child]){
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = value;
+    }
+
+    /**
+     * 在区间arr[low,high]中查找升序排序后位于索引k的元素
+     * @param arr 数组
+     * @param low 低位索引
+     * @param high 高位索引
+     * @param k 索引，取值范围[low,high]
+     * @return 第k小的元素
+     */
+    private static int selectRange(int[] arr,int low,int high,int k){
+        //分区深度上限2logn
+        int depth = 2 * (31 - Integer.numberOfLeadingZeros(high - low + 1));
+        while(true){
+            if(high - low < INSERTION_SORT_THRESHOLD){
+                //小数组插入排序
+                insertionSort(arr,low,high);
+                return arr[k];
+            }
+            //选取分区点：分区深度超限时改用中位数的中位数
+            int pivot = depth-- > 0 ? selectPivot(arr,low,high) : medianOfMedians(arr,low,high);
+            //三路分区：[low,lt)小于分区点，[lt,gt]等于分区点，(gt,high]大于分区点
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while(i <= gt){
+                int value = arr[i];
+                if(value < pivot){
+                    arr[i++] = arr[lt];
+                    arr[lt++] = value;
+                }else if(value > pivot){
+                    arr[i] = arr[gt];
+                    arr[gt--] = value;
+                }else{
+                    i++;
+                }
+            }
+            //只进入包含索引k的区间
+            if(k < lt){
+                high = lt - 1;
+            }else if(k > gt){
+                low = gt + 1;
+            }else{
+                return pivot;
+            }
+        }
+    }
+
+    /**
+     * 中位数的中位数：每5个元素一组取中位数并移动到区间头部，再递归选取这些中位数的中位数。
+     * @param arr 数组
+     * @param low 低位索引
+     * @param high 高位索引
+     * @return 分区点元素值
+     */
+    private static int medianOfMedians(int[] arr,int low,int high){
+        //分组个数
+        int groups = 0;
+        for(int start = low ; start <= high ; start += 5){
+            int end = Math.min(start + 4,high);
+            //组内插入排序后取中位数
+            insertionSort(arr,start,end);
+            int median = (start + end) >>> 1;
+            //中位数移动到区间头部
+            int target = low + groups++;
+            int tmp = arr[target];
+            arr[target] = arr[median];
+            arr[median] = tmp;
+        }
+        //递归选取各组中位数的中位数
+        return selectRange(arr,low,low + groups - 1,low + ((groups - 1) >>> 1));
+    }
+
+    /**
+     * 间接排序(argsort)：返回使键数组升序的索引排列，不移动键数组本身。
+     *
+     * 原理：
+     * 对索引数组做内省排序，比较时按索引读取键值。得到排列perm后，keys[perm[0]] <= keys[perm[1]] <= ...，
+     * 列式存储的其它列可以按perm[i]按需读取，无需拷贝整行数据。
+     *
+     * 性能：
+     * 时间复杂度：O(nlogn)
+     * 空间复杂度：O(n) --索引数组，以及int键扩展为long的副本
+     * 稳定性：不稳定 --需要稳定排列时使用{@link #stableArgSort(int[])}
+     *
+     * @param keys 键数组
+     * @return 索引排列
+     */
+    public static int[] argSort(int[] keys){
+        //入参校验
+        if(keys == null){
+            return new int[0];
+        }
+        long[] sortKeys = new long[keys.length];
+        for(int i = 0 ; i < keys.length ; i++){
+            sortKeys[i] = keys[i];
+        }
+        return indexIntroSort(sortKeys);
+    }
+
+    /**
+     * 间接排序(argsort)，原理同{@link #argSort(int[])}。
+     *
+     * 性能：
+     * 时间复杂度：O(nlogn)
+     * 空间复杂度：O(n) --索引数组
+     * 稳定性：不稳定 --需要稳定排列时使用{@link #stableArgSort(long[])}
+     *
+     * @param keys 键数组
+     * @return 索引排列
+     */
+    public static int[] argSort(long[] keys){
+        //入参校验
+        if(keys == null){
+            return new int[0];
+        }
+        return indexIntroSort(keys);
+    }
+
+    /**
+     * 间接排序(argsort)，原理同{@link #argSort(int[])}，顺序与Double.compare一致(-0.0小于0.0，NaN最大)。
+     *
+     * 性能：
+     * 时间复杂度：O(nlogn)
+     * 空间复杂度：O(n) --索引数组，以及double键转换为可比较long的副本
+     * 稳定性：不稳定 --需要稳定排列时使用{@link #stableArgSort(double[])}
+     *
+     * @param keys 键数组
+     * @return 索引排列
+     */
+    public static int[] argSort(double[] keys){
+        //入参校验
+        if(keys == null){
+            return new int[0];
+        }
+        return indexIntroSort(toSortableLongs(keys));
+    }
+
+    /**
+     * 稳定间接排序：返回使键数组升序的索引排列，键相等时保持原索引顺序。
+     *
+     * 原理：
+     * 将键(高32位)与索引(低32位)拼接为long后基数排序，键相等时按索引升序，再取出低32位即为排列。
+     *
+     * 性能：
+     * 时间复杂度：O(n) --基数排序，索引高位字节取值相同的趟会被跳过
+     * 空间复杂度：O(n) --拼接后的long数组及其基数排序辅助数组
+     * 稳定性：稳定 --键相等的索引保持原顺序
+     *
+     * @param keys 键数组
+     * @return 索引排列
+     */
+    public static int[] stableArgSort(int[] keys){
+        //入参校验
+        if(keys == null){
+            return new int[0];
+        }
+        int n = keys.length;
+        long[] packed = new long[n];
+        for(int i = 0 ; i < n ; i++){
+            packed[i] = ((long) keys[i] << 32) | i;
+        }
+        radixSort(packed);
+        int[] perm = new int[n];
+        for(int i = 0 ; i < n ; i++){
+            perm[i] = (int) packed[i];
+        }
+        return perm;
+    }
+
+    /**
+     * 稳定间接排序，键相等时保持原索引顺序。
+     *
+     * 原理：
+     * 对键数组副本做LSD基数排序，每趟分桶时同步移动对应的索引，键值取值相同的字节跳过。
+     *
+     * 性能：
+     * 时间复杂度：O(n) --最多8趟线性遍历
+     * 空间复杂度：O(n) --键与索引各需要2个数组交替分桶
+     * 稳定性：稳定 --键相等的索引保持原顺序
+     *
+     * @param keys 键数组
+     * @return 索引排列
+     */
+    public static int[] stableArgSort(long[] keys){
+        //入参校验
+        if(keys == null){
+            return new int[0];
+        }
+        return indexRadixSort(keys.clone());
+    }
+
+    /**
+     * 稳定间接排序，原理同{@link #stableArgSort(long[])}，顺序与Double.compare一致(-0.0小于0.0，NaN最大)。
+     *
+     * 性能：
+     * 时间复杂度：O(n) --最多8趟线性遍历
+     * 空间复杂度：O(n) --键与索引各需要2个数组交替分桶
+     * 稳定性：稳定 --键相等的索引保持原顺序
+     *
+     * @param keys 键数组
+     * @return 索引排列
+     */
+    public static int[] stableArgSort(double[] keys){
+        //入参校验
+        if(keys == null){
+            return new int[0];
+        }
+        return indexRadixSort(toSortableLongs(keys));
+    }
+
+    /**
+     * 按索引排列重排数组：result[i] = column[perm[i]]
+     * @param column 列数组
+     * @param perm 索引排列
+     * @return 重排后的新数组
+     */
+    public static int[] permute(int[] column,int[] perm){
+        //入参校验
+        if(column == null || perm == null){
+            return new int[0];
+        }
+        int[] result = new int[perm.length];
+        for(int i = 0 ; i < perm.length ; i++){
+            result[i] = column[perm[i]];
+        }
+        return result;
+    }
+
+    /**
+     * 按索引排列重排数组：result[i] = column[perm[i]]
+     * @param column 列数组
+     * @param perm 索引排列
+     * @return 重排后的新数组
+     */
+    public static long[] permute(long[] column,int[] perm){
+        //入参校验
+        if(column == null || perm == null){
+            return new long[0];
+        }
+        long[] result = new long[perm.length];
+        for(int i = 0 ; i < perm.length ; i++){
+            result[i] = column[perm[i]];
+        }
+        return result;
+    }
+
+    /**
+     * 按索引排列重排数组：result[i] = column[perm[i]]
+     * @param column 列数组
+     * @param perm 索引排列
+     * @return 重排后的新数组
+     */
+    public static double[] permute(double[] column,int[] perm){
+        //入参校验
+        if(column == null || perm == null){
+            return new double[0];
+        }
+        double[] result = new double[perm.length];
+        for(int i = 0 ; i < perm.length ; i++){
+            result[i] = column[perm[i]];
+        }
+        return result;
+    }
+
+    /**
+     * 按索引排列重排数组：result[i] = column[perm[i]]
+     * @param column 列数组
+     * @param perm 索引排列
+     * @param <T> 元素类型
+     * @return 重排后的新数组
+     */
+    public static <T> T[] permute(T[] column,int[] perm){
+        //入参校验
+        if(column == null || perm == null){
+            return column;
+        }
+        T[] result = Arrays.copyOf(column,perm.length);
+        for(int i = 0 ; i < perm.length ; i++){
+            result[i] = column[perm[i]];
+        }
+        return result;
+    }
+
+    /**
+     * 将double转换为有序long：正数保持不变，负数翻转除符号位以外的全部位，转换后按long比较的顺序与Double.compare一致。
+     * @param keys double数组
+     * @return 有序long数组
+     */
+    private static long[] toSortableLongs(double[] keys){
+        long[] sortKeys = new long[keys.length];
+        for(int i = 0 ; i < keys.length ; i++){
+            long bits = Double.doubleToLongBits(keys[i]);
+            sortKeys[i] = bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        }
+        return sortKeys;
+    }
+
+    /**
+     * 对索引数组做内省排序，比较keys[perm[i]]
+     * @param keys 键数组
+     * @return 索引排列
+     */
+    private static int[] indexIntroSort(long[] keys){
+        int n = keys.length;
+        int[] perm = new int[n];
+        for(int i = 0 ; i < n ; i++){
+            perm[i] = i;
+        }
+        if(n < 2){
+            return perm;
+        }
+        //分区深度上限2logn
+        int depth = 2 * (31 - Integer.numberOfLeadingZeros(n));
+        //显式栈，每个区间占用3个元素：低位索引、高位索引、剩余分区深度
+        int[] stack = new int[3 * 32];
+        int top = 0;
+        int low = 0;
+        int high = n - 1;
+        while(true){
+            if(high - low < INSERTION_SORT_THRESHOLD){
+                //小数组插入排序
+                for(int i = low + 1 ; i <= high ; i++){
+                    int index = perm[i];
+                    long key = keys[index];
+                    int j = i - 1;
+                    while(j >= low && keys[perm[j]] > key){
+                        perm[j+1] = perm[j];
+                        j--;
+                    }
+                    perm[j+1] = index;
+                }
+            }else if(depth == 0){
+                //分区深度超限，堆排序兜底
+                indexHeapSort(keys,perm,low,high);
+            }else{
+                depth--;
+                //三数取中
+                int mid = (low + high) >>> 1;
+                long a = keys[perm[low]];
+                long b = keys[perm[mid]];
+                long c = keys[perm[high]];
+                long pivot = a < b ? (b < c ? b : (a < c ? c : a)) : (a < c ? a : (b < c ? c : b));
+                //三路分区：[low,lt)小于分区点，[lt,gt]等于分区点，(gt,high]大于分区点
+                int lt = low;
+                int gt = high;
+                int i = low;
+                while(i <= gt){
+                    int index = perm[i];
+                    long key = keys[index];
+                    if(key < pivot){
+                        perm[i++] = perm[lt];
+                        perm[lt++] = index;
+                    }else if(key > pivot){
+                        perm[i] = perm[gt];
+                        perm[gt--] = index;
+                    }else{
+                        i++;
+                    }
+                }
+                //较长区间入栈，继续处理较短区间
+                if(lt - low < high - gt){
+                    stack[top++] = gt + 1;
+                    stack[top++] = high;
+                    stack[top++] = depth;
+                    high = lt - 1;
+                }else{
+                    stack[top++] = low;
+                    stack[top++] = lt - 1;
+                    stack[top++] = depth;
+                    low = gt + 1;
+                }
+                continue;
+            }
+            //栈为空则排序完成
+            if(top == 0){
+                return perm;
+            }
+            depth = stack[--top];
+            high = stack[--top];
+            low = stack[--top];
+        }
+    }
+
+    /**
+     * 对索引区间perm[low,high]做堆排序，比较keys[perm[i]]
+     * @param keys 键数组
+     * @param perm 索引数组
+     * @param low 低位索引
+     * @param high 高位索引
+     */
+    private static void indexHeapSort(long[] keys,int[] perm,int low,int high){
+        int len = high - low + 1;
+        for(int i = (len >>> 1) - 1 ; i >= 0 ; i--){
+            indexSiftDown(keys,perm,low,i,len);
+        }
+        for(int end = len - 1 ; end > 0 ; end--){
+            int tmp = perm[low];
+            perm[low] = perm[low+end];
+            perm[low+end] = tmp;
+            indexSiftDown(keys,perm,low,0,end);
+        }
+    }
+
+    /**
+     * 索引大顶堆下沉
+     * @param keys 键数组
+     * @param perm 索引数组
+     * @param offset 堆在数组中的起始索引
+     * @param i 下沉结点在堆中的索引
+     * @param len 堆的元素个数
+     */
+    private static void indexSiftDown(long[] keys,int[] perm,int offset,int i,int len){
+        int index = perm[offset+i];
+        long key = keys[index];
+        int child;
+        while((child = (i << 1) + 1) < len){
+            if(child + 1 < len && keys[perm[offset+child]] < keys[perm[offset+child+1]]){
+                child++;
+            }
+            if(key >= keys[perm[offset+child]]){
+                break;
+            }
+            perm[offset+i] = perm[offset+child];
+            i = child;
+        }
+        perm[offset+i] = index;
+    }
+
+    /**
+     * 键数组与索引数组同步做LSD基数排序
+     * @param keys 键数组副本，排序过程中会被修改
+     * @return 索引排列
+     */
+    private static int[] indexRadixSort(long[] keys){
+        int n = keys.length;
+        int[] perm = new int[n];
+        for(int i = 0 ; i < n ; i++){
+            perm[i] = i;
+        }
+        if(n < 2){
+            return perm;
+        }
+        //一次遍历统计全部字节的直方图
+        int[] counts = new int[8 * RADIX];
+        for(int i = 0 ; i < n ; i++){
+            long key = keys[i] ^ Long.MIN_VALUE;
+            for(int pass = 0 ; pass < 8 ; pass++){
+                counts[pass * RADIX + (int) ((key >>> (pass * RADIX_BITS)) & 0xFF)]++;
+            }
+        }
+        long[] srcKeys = keys;
+        long[] dstKeys = new long[n];
+        int[] srcPerm = perm;
+        int[] dstPerm = new int[n];
+        for(int pass = 0 ; pass < 8 ; pass++){
+            int base = pass * RADIX;
+            //当前字节取值全部相同，跳过该趟
+            if(isConstantDigit(counts,base,n)){
+                continue;
+            }
+            toOffsets(counts,base);
+            //键与索引同步分桶
+            int shift = pass * RADIX_BITS;
+            for(int i = 0 ; i < n ; i++){
+                long key = srcKeys[i];
+                int pos = counts[base + (int) (((key ^ Long.MIN_VALUE) >>> shift) & 0xFF)]++;
+                dstKeys[pos] = key;
+                dstPerm[pos] = srcPerm[i];
+            }
+            long[] tmpKeys = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = tmpKeys;
+            int[] tmpPerm = srcPerm;
+            srcPerm = dstPerm;
+            dstPerm = tmpPerm;
+        }
+        return srcPerm;
+    }
 }
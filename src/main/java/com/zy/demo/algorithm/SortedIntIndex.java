@@ -0,0 +1,122 @@
+package com.zy.demo.algorithm;
+
+/**
+ * 有序int数组的只读查找索引(Eytzinger布局)
+ *
+ * 原理：
+ * 普通二分查找在大数组上每一步访问的位置相距很远，前几步之后几乎每一步都是一次缓存未命中。
+ * Eytzinger布局按完全二叉搜索树的层序(BFS)存储有序数组：结点k的左右子结点分别位于2k与2k+1。
+ * 1、树的上几层集中在数组头部，常驻CPU缓存。
+ * 2、结点k向下第4层的16个后代连续存放在[16k,16k+15]，恰好是一条缓存行，硬件预取与空间局部性都能生效。
+ * 3、下降过程k = 2k + (b[k] < target)没有分支，不存在分支预测失败，CPU可以提前发起后续的内存访问。
+ * 下降结束后k的二进制形如"路径+1+若干个0"，去掉末尾的1和0即得到结果结点。
+ *
+ * 性能：
+ * 构建：时间复杂度O(n)，空间复杂度O(n)。
+ * 查询：时间复杂度O(logn)，空间复杂度O(1)。
+ *
+ * @author zy
+ */
+public final class SortedIntIndex {
+
+    //最大元素个数：下降过程中结点索引最大为2n+1，不能超过int范围
+    private static final int MAX_SIZE = (1 << 30) - 1;
+
+    //Eytzinger布局数组，从索引1开始存储，索引0不使用
+    private final int[] tree;
+
+    //元素个数
+    private final int size;
+
+    /**
+     * 由有序数组构建索引，构建后与原数组无关联
+     * @param sorted 升序数组(允许重复元素)，长度不超过2^30-1
+     */
+    public SortedIntIndex(int[] sorted){
+        if(sorted == null){
+            sorted = new int[0];
+        }
+        //入参校验：元素个数不超过上限，且必须是升序数组
+        if(sorted.length > MAX_SIZE){
+            throw new IllegalArgumentException("Illegal array length=" + sorted.length);
+        }
+        for(int i = 1 ; i < sorted.length ; i++){
+            if(sorted[i] < sorted[i-1]){
+                throw new IllegalArgumentException("Illegal array: not sorted at index " + i);
+            }
+        }
+        this.size = sorted.length;
+        this.tree = new int[this.size + 1];
+        //中序遍历完全二叉树，依次填入有序数组的元素
+        build(sorted,0,1);
+    }
+
+    /**
+     * 中序遍历填充以结点k为根的子树
+     * @param sorted 有序数组
+     * @param i 下一个待填充元素在有序数组中的索引
+     * @param k 结点索引
+     * @return 填充完成后下一个待填充元素的索引
+     */
+    private int build(int[] sorted,int i,int k){
+        if(k <= this.size){
+            i = build(sorted,i,k << 1);
+            this.tree[k] = sorted[i++];
+            i = build(sorted,i,(k << 1) + 1);
+        }
+        return i;
+    }
+
+    /**
+     * 获取元素个数
+     * @return 元素个数
+     */
+    public int size(){
+        return this.size;
+    }
+
+    /**
+     * 判断目标值是否存在，语义同{@link Partition#ifExist(int[], int)}
+     * @param target 目标值
+     * @return target存在返回true；否则返回false。
+     */
+    public boolean contains(int target){
+        int k = lowerBoundNode(target);
+        return k != 0 && this.tree[k] == target;
+    }
+
+    /**
+     * 查找第一个大于target的数值，语义同{@link Partition#findFirstNum(int[], int)}
+     * @param target 指定数值
+     * @return 第一个大于target的数值；如果不存在，则返回-1。
+     */
+    public int upperBound(int target){
+        int[] t = this.tree;
+        int n = this.size;
+        int k = 1;
+        //无分支下降：t[k] <= target时向右，否则向左
+        while(k <= n){
+            k = (k << 1) | (int) ((((long) target - t[k]) >>> 63) ^ 1);
+        }
+        //去掉末尾连续的1(向右)以及最后一次向左
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+        return k == 0 ? -1 : t[k];
+    }
+
+    /**
+     * 查找第一个大于等于target的结点
+     * @param target 目标值
+     * @return 结点索引；不存在则返回0。
+     */
+    private int lowerBoundNode(int target){
+        int[] t = this.tree;
+        int n = this.size;
+        int k = 1;
+        //无分支下降：t[k] < target时向右，否则向左
+        while(k <= n){
+            k = (k << 1) | (int) (((long) t[k] - target) >>> 63);
+        }
+        //去掉末尾连续的1(向右)以及最后一次向左
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+}
@@ -0,0 +1,308 @@
+package com.zy.demo.algorithm;
+
+import com.zy.demo.util.LongIntHashMap;
+
+import java.util.Arrays;
+
+/**
+ * 后缀自动机
+ *
+ * 原理：
+ * 后缀自动机是识别参照文本全部子串的最小确定有限状态自动机，状态数不超过2n，转移数不超过3n。
+ * 1、每个状态代表一组结束位置集合相同的子串，len为其中最长子串的长度。
+ * 2、后缀链接link指向"去掉若干个首字符后结束位置集合变大"的状态，沿后缀链接回退相当于缩短当前匹配的首部。
+ * 3、逐个字符增量构建，均摊时间复杂度O(n)。
+ *
+ * 求最大公共子字符串：
+ * 候选字符串逐个字符在自动机上转移，转移失败时沿后缀链接回退直到可以转移，匹配长度同步缩短为回退状态的len。
+ * 转移成功时匹配长度加1，匹配长度的最大值即最大公共子字符串长度。候选字符串每个字符最多前进1次、回退均摊O(1)次，时间复杂度O(m)。
+ *
+ * 参照文本构建一次后可以反复查询多个候选字符串。查询需要的数组在构建完成后赋值给final字段且不再修改，可以被多个线程同时查询。
+ *
+ * 性能：
+ * 构建：时间复杂度O(n)，空间复杂度O(n)。
+ * 查询：时间复杂度O(m)，空间复杂度O(1)。
+ *
+ * @author zy
+ */
+public final class SuffixAutomaton {
+
+    //状态：最长子串长度
+    private final int[] len;
+
+    //状态：后缀链接
+    private final int[] link;
+
+    //状态个数
+    private final int stateCount;
+
+    //转移边：目标状态
+    private final int[] edgeTo;
+
+    //转移表：(状态<<16)|字符 -> 转移边
+    private final LongIntHashMap transitions;
+
+    /**
+     * 构建参照文本的后缀自动机
+     * 在构建器中增量构建，完成后只保留查询需要的数组
+     * @param text 参照文本
+     */
+    public SuffixAutomaton(CharSequence text){
+        if(text == null){
+            text = "";
+        }
+        Builder builder = new Builder(text.length());
+        for(int i = 0 ; i < text.length() ; i++){
+            builder.extend(text.charAt(i));
+        }
+        //构建完成后释放多余容量
+        this.stateCount = builder.stateCount;
+        this.len = Arrays.copyOf(builder.len,builder.stateCount);
+        this.link = Arrays.copyOf(builder.link,builder.stateCount);
+        this.edgeTo = Arrays.copyOf(builder.edgeTo,builder.edgeCount);
+        this.transitions = builder.transitions;
+    }
+
+    /**
+     * 求两个字符串的最大公共子字符串，结果与{@link DynamicProgramming#getCommonStr(String, String)}一致。
+     * 以str2构建后缀自动机，str1作为候选字符串查询。
+     * 时间复杂度：O(m+n)
+     * 空间复杂度：O(n)
+     * @param str1 字符串1
+     * @param str2 字符串2
+     * @return 最大公共字符串，多个等长结果时返回在str1中最先结束的一个
+     */
+    public static String longestCommonSubstring(String str1,String str2){
+        if(str1 == null || str2 == null || str1.isEmpty() || str2.isEmpty()){
+            return "";
+        }
+        return new SuffixAutomaton(str2).longestCommonSubstring(str1);
+    }
+
+    /**
+     * 求候选字符串与参照文本的最大公共子字符串
+     * 时间复杂度：O(m)
+     * 空间复杂度：O(1)
+     * @param candidate 候选字符串
+     * @return 最大公共字符串，多个等长结果时返回在候选字符串中最先结束的一个
+     */
+    public String longestCommonSubstring(CharSequence candidate){
+        if(candidate == null || candidate.length() == 0){
+            return "";
+        }
+        //当前状态
+        int state = 0;
+        //当前匹配长度
+        int matched = 0;
+        //最大匹配长度
+        int maxLen = 0;
+        //最大匹配在候选字符串中的结束位置(不包含)
+        int index = 0;
+        for(int i = 0 ; i < candidate.length() ; i++){
+            char c = candidate.charAt(i);
+            int next = this.transition(state,c);
+            //转移失败时沿后缀链接回退，缩短匹配
+            while(next < 0 && state != 0){
+                state = this.link[state];
+                matched = this.len[state];
+                next = this.transition(state,c);
+            }
+            if(next < 0){
+                //初始状态也无法转移，字符不在参照文本中
+                matched = 0;
+            }else{
+                state = next;
+                matched++;
+                if(matched > maxLen){
+                    maxLen = matched;
+                    index = i + 1;
+                }
+            }
+        }
+        return candidate.subSequence(index - maxLen,index).toString();
+    }
+
+    /**
+     * 判断参照文本是否包含指定字符串
+     * 时间复杂度：O(m)
+     * @param pattern 指定字符串
+     * @return 包含返回true；否则返回false。
+     */
+    public boolean contains(CharSequence pattern){
+        if(pattern == null){
+            return false;
+        }
+        int state = 0;
+        for(int i = 0 ; i < pattern.length() && state >= 0 ; i++){
+            state = this.transition(state,pattern.charAt(i));
+        }
+        return state >= 0;
+    }
+
+    /**
+     * 获取状态个数
+     * @return 状态个数
+     */
+    public int stateCount(){
+        return this.stateCount;
+    }
+
+    /**
+     * 查询转移
+     * @param state 状态
+     * @param c 字符
+     * @return 目标状态；不存在转移时返回-1。
+     */
+    private int transition(int state,char c){
+        int e = this.transitions.get(key(state,c));
+        return e < 0 ? -1 : this.edgeTo[e];
+    }
+
+    /**
+     * 构建器：增量构建时状态与转移边的数组需要扩容，构建完成后只读取结果
+     */
+    private static final class Builder {
+
+        //状态：最长子串长度
+        private int[] len;
+
+        //状态：后缀链接
+        private int[] link;
+
+        //状态：第一条出边
+        private int[] head;
+
+        //状态个数
+        private int stateCount;
+
+        //转移边：目标状态
+        private int[] edgeTo;
+
+        //转移边：字符
+        private char[] edgeChar;
+
+        //转移边：同一状态的下一条出边
+        private int[] edgeNext;
+
+        //转移边个数
+        private int edgeCount;
+
+        //转移表：(状态<<16)|字符 -> 转移边
+        private final LongIntHashMap transitions;
+
+        //当前整个文本对应的状态
+        private int last;
+
+        Builder(int n){
+            int stateCapacity = Math.max(2,n + 1);
+            this.len = new int[stateCapacity];
+            this.link = new int[stateCapacity];
+            this.head = new int[stateCapacity];
+            this.edgeTo = new int[stateCapacity];
+            this.edgeChar = new char[stateCapacity];
+            this.edgeNext = new int[stateCapacity];
+            this.transitions = new LongIntHashMap(n + 1,-1);
+            //初始状态
+            this.last = this.newState(0,-1);
+        }
+
+        /**
+         * 增量添加一个字符
+         * @param c 字符
+         */
+        private void extend(char c){
+            int cur = this.newState(this.len[this.last] + 1,-1);
+            int p = this.last;
+            //沿后缀链接为所有没有字符c转移的状态添加到cur的转移
+            while(p != -1 && this.transition(p,c) < 0){
+                this.addEdge(p,c,cur);
+                p = this.link[p];
+            }
+            this.last = cur;
+            if(p == -1){
+                this.link[cur] = 0;
+                return;
+            }
+            int q = this.transition(p,c);
+            if(this.len[p] + 1 == this.len[q]){
+                this.link[cur] = q;
+                return;
+            }
+            //拆分状态q：克隆q的全部出边与后缀链接，len取len[p]+1
+            int clone = this.newState(this.len[p] + 1,this.link[q]);
+            for(int e = this.head[q] ; e >= 0 ; e = this.edgeNext[e]){
+                this.addEdge(clone,this.edgeChar[e],this.edgeTo[e]);
+            }
+            //原本经字符c转移到q的状态改为转移到clone
+            while(p != -1){
+                int e = this.transitions.get(key(p,c));
+                if(e < 0 || this.edgeTo[e] != q){
+                    break;
+                }
+                this.edgeTo[e] = clone;
+                p = this.link[p];
+            }
+            this.link[q] = clone;
+            this.link[cur] = clone;
+        }
+
+        /**
+         * 新建状态
+         * @param length 最长子串长度
+         * @param suffixLink 后缀链接
+         * @return 状态编号
+         */
+        private int newState(int length,int suffixLink){
+            if(this.stateCount == this.len.length){
+                int newLen = this.len.length * 3/2 + 1;
+                this.len = Arrays.copyOf(this.len,newLen);
+                this.link = Arrays.copyOf(this.link,newLen);
+                this.head = Arrays.copyOf(this.head,newLen);
+            }
+            int state = this.stateCount++;
+            this.len[state] = length;
+            this.link[state] = suffixLink;
+            this.head[state] = -1;
+            return state;
+        }
+
+        /**
+         * 添加转移边
+         * @param from 起始状态
+         * @param c 字符
+         * @param to 目标状态
+         */
+        private void addEdge(int from,char c,int to){
+            if(this.edgeCount == this.edgeTo.length){
+                int newLen = this.edgeTo.length * 3/2 + 1;
+                this.edgeTo = Arrays.copyOf(this.edgeTo,newLen);
+                this.edgeChar = Arrays.copyOf(this.edgeChar,newLen);
+                this.edgeNext = Arrays.copyOf(this.edgeNext,newLen);
+            }
+            int e = this.edgeCount++;
+            this.edgeTo[e] = to;
+            this.edgeChar[e] = c;
+            this.edgeNext[e] = this.head[from];
+            this.head[from] = e;
+            this.transitions.put(key(from,c),e);
+        }
+
+        /**
+         * 查询转移
+         * @param state 状态
+         * @param c 字符
+         * @return 目标状态；不存在转移时返回-1。
+         */
+        private int transition(int state,char c){
+            int e = this.transitions.get(key(state,c));
+            return e < 0 ? -1 : this.edgeTo[e];
+        }
+    }
+
+    /**
+     * 转移表的键：状态编号拼接字符
+     */
+    private static long key(int state,char c){
+        return ((long) state << 16) | c;
+    }
+}
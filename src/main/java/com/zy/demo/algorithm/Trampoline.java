@@ -0,0 +1,141 @@
+package com.zy.demo.algorithm;
+
+import java.util.ArrayDeque;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 蹦床(trampoline)：栈安全的递归计算
+ *
+ * 原理：
+ * 递归调用不直接执行，而是返回一个描述"下一步做什么"的对象，由{@link #run()}在循环中逐步执行。
+ * 1、{@link #done(Object)}：计算完成。
+ * 2、{@link #more(Supplier)}：延迟的下一步，相当于尾调用。
+ * 3、{@link #flatMap(Function)}：先计算当前步骤，再用结果计算后续步骤，相当于非尾调用。
+ * run()用显式栈保存待执行的后续步骤，调用深度不受线程栈大小限制，不会StackOverflowError。
+ *
+ * 例如：sum(n) = n + sum(n-1)
+ * <pre>
+ * Trampoline&lt;Long&gt; sum(long n){
+ *     if(n == 0){
+ *         return Trampoline.done(0L);
+ *     }
+ *     return Trampoline.more(() -&gt; sum(n - 1)).map(s -&gt; s + n);
+ * }
+ * </pre>
+ *
+ * @param <T> 计算结果类型
+ * @author zy
+ */
+public abstract class Trampoline<T> {
+
+    private Trampoline(){
+    }
+
+    /**
+     * 已完成的计算
+     * @param value 计算结果
+     * @param <T> 计算结果类型
+     * @return 蹦床
+     */
+    public static <T> Trampoline<T> done(T value){
+        return new Done<>(value);
+    }
+
+    /**
+     * 延迟的下一步计算
+     * @param next 下一步
+     * @param <T> 计算结果类型
+     * @return 蹦床
+     */
+    public static <T> Trampoline<T> more(Supplier<Trampoline<T>> next){
+        return new More<>(next);
+    }
+
+    /**
+     * 当前计算完成后，用计算结果继续下一步计算
+     * @param f 后续计算
+     * @param <R> 后续计算结果类型
+     * @return 蹦床
+     */
+    public <R> Trampoline<R> flatMap(Function<? super T,Trampoline<R>> f){
+        return new FlatMap<>(this,f);
+    }
+
+    /**
+     * 当前计算完成后，转换计算结果
+     * @param f 转换函数
+     * @param <R> 转换结果类型
+     * @return 蹦床
+     */
+    public <R> Trampoline<R> map(Function<? super T,? extends R> f){
+        return this.flatMap(value -> done(f.apply(value)));
+    }
+
+    /**
+     * 循环执行全部步骤
+     * 时间复杂度：O(步骤数)
+     * 空间复杂度：O(待执行的后续步骤数)，使用堆内存
+     * @return 计算结果
+     */
+    @SuppressWarnings("unchecked")
+    public T run(){
+        //待执行的后续步骤
+        ArrayDeque<Function<Object,Trampoline<Object>>> continuations = new ArrayDeque<>();
+        Trampoline<Object> current = (Trampoline<Object>) this;
+        while(true){
+            if(current instanceof Done){
+                Object value = ((Done<Object>) current).value;
+                if(continuations.isEmpty()){
+                    return (T) value;
+                }
+                current = continuations.pop().apply(value);
+            }else if(current instanceof More){
+                current = ((More<Object>) current).next.get();
+            }else{
+                FlatMap<Object,Object> flatMap = (FlatMap<Object,Object>) current;
+                continuations.push(flatMap.f);
+                current = flatMap.source;
+            }
+        }
+    }
+
+    /**
+     * 已完成
+     */
+    private static final class Done<T> extends Trampoline<T> {
+
+        private final T value;
+
+        Done(T value){
+            this.value = value;
+        }
+    }
+
+    /**
+     * 延迟的下一步
+     */
+    private static final class More<T> extends Trampoline<T> {
+
+        private final Supplier<Trampoline<T>> next;
+
+        More(Supplier<Trampoline<T>> next){
+            this.next = next;
+        }
+    }
+
+    /**
+     * 先计算source，再用结果计算f
+     */
+    private static final class FlatMap<A,T> extends Trampoline<T> {
+
+        private final Trampoline<A> source;
+
+        private final Function<? super A,Trampoline<T>> f;
+
+        FlatMap(Trampoline<A> source,Function<? super A,Trampoline<T>> f){
+            this.source = source;
+            this.f = f;
+        }
+    }
+}
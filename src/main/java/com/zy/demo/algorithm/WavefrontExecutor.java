@@ -0,0 +1,170 @@
+package com.zy.demo.algorithm;
+
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 波前(wavefront)并行执行器
+ *
+ * 适用场景：
+ * 两个字符串的动态规划(最大公共子字符串、编辑距离、最长公共子序列等)，状态dp[i][j]只依赖上方dp[i-1][j]、左方dp[i][j-1]、左上方dp[i-1][j-1]。
+ * 同一条反对角线上的状态互不依赖，可以并行计算。
+ *
+ * 原理：
+ * 1、分块：将rows×cols的策略集合切分为tileSize×tileSize的分块，分块大小与CPU缓存相当，块内串行填充，缓存命中率高。
+ * 2、依赖计数：每个分块记录尚未完成的前驱分块个数(上方、左方，左上方已被二者间接依赖)。
+ * 3、调度：分块填充完成后，将右方、下方分块的计数减1，计数归零的分块立即提交到ForkJoinPool执行。
+ *    无需等待整条反对角线完成，不存在全局同步屏障。
+ *
+ * @author zy
+ */
+public final class WavefrontExecutor {
+
+    //默认分块大小：256×256个int约256KB，与L2缓存相当
+    public static final int DEFAULT_TILE_SIZE = 256;
+
+    /**
+     * 分块填充函数
+     */
+    @FunctionalInterface
+    public interface TileFiller {
+
+        /**
+         * 填充行区间[rowFrom,rowTo)与列区间[colFrom,colTo)内的全部状态。
+         * 调用时上方、左方、左上方的分块均已填充完成，且其写入对当前线程可见。
+         * @param tileRow 分块行号
+         * @param tileCol 分块列号
+         * @param rowFrom 起始行(包含)
+         * @param rowTo 终止行(不包含)
+         * @param colFrom 起始列(包含)
+         * @param colTo 终止列(不包含)
+         */
+        void fill(int tileRow,int tileCol,int rowFrom,int rowTo,int colFrom,int colTo);
+    }
+
+    private WavefrontExecutor(){
+    }
+
+    /**
+     * 计算分块行数或列数
+     * @param length 行数或列数
+     * @param tileSize 分块大小
+     * @return 分块行数或列数
+     */
+    public static int tiles(int length,int tileSize){
+        return (length + tileSize - 1) / tileSize;
+    }
+
+    /**
+     * 在公共ForkJoinPool中按波前顺序并行填充全部分块，全部完成后返回
+     * @param rows 行数
+     * @param cols 列数
+     * @param tileSize 分块大小
+     * @param filler 分块填充函数
+     */
+    public static void execute(int rows,int cols,int tileSize,TileFiller filler){
+        execute(rows,cols,tileSize,filler,ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 在指定ForkJoinPool中按波前顺序并行填充全部分块，全部完成后返回
+     * @param rows 行数
+     * @param cols 列数
+     * @param tileSize 分块大小
+     * @param filler 分块填充函数
+     * @param pool 线程池
+     */
+    public static void execute(int rows,int cols,int tileSize,TileFiller filler,ForkJoinPool pool){
+        //入参校验
+        if(rows < 0 || cols < 0){
+            throw new IllegalArgumentException("Illegal size: rows=" + rows + ", cols=" + cols);
+        }
+        if(tileSize < 1){
+            throw new IllegalArgumentException("Illegal tileSize=" + tileSize);
+        }
+        if(filler == null || pool == null){
+            throw new IllegalArgumentException("Illegal filler or pool!");
+        }
+        if(rows == 0 || cols == 0){
+            return;
+        }
+        int tileRows = tiles(rows,tileSize);
+        int tileCols = tiles(cols,tileSize);
+        //各分块尚未完成的前驱分块个数
+        AtomicIntegerArray pending = new AtomicIntegerArray(tileRows * tileCols);
+        for(int r = 0 ; r < tileRows ; r++){
+            for(int c = 0 ; c < tileCols ; c++){
+                pending.set(r * tileCols + c,(r > 0 ? 1 : 0) + (c > 0 ? 1 : 0));
+            }
+        }
+        Wavefront wavefront = new Wavefront(rows,cols,tileSize,tileRows,tileCols,pending,filler);
+        //从左上角分块开始
+        pool.invoke(new TileTask(null,wavefront,0,0));
+    }
+
+    /**
+     * 一次波前执行的共享参数
+     */
+    private static final class Wavefront {
+
+        private final int rows;
+        private final int cols;
+        private final int tileSize;
+        private final int tileRows;
+        private final int tileCols;
+        private final AtomicIntegerArray pending;
+        private final TileFiller filler;
+
+        Wavefront(int rows,int cols,int tileSize,int tileRows,int tileCols,AtomicIntegerArray pending,TileFiller filler){
+            this.rows = rows;
+            this.cols = cols;
+            this.tileSize = tileSize;
+            this.tileRows = tileRows;
+            this.tileCols = tileCols;
+            this.pending = pending;
+            this.filler = filler;
+        }
+    }
+
+    /**
+     * 分块任务：填充完成后触发计数归零的后继分块，全部后继完成后通知前驱任务
+     */
+    private static final class TileTask extends CountedCompleter<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Wavefront wavefront;
+        private final int tileRow;
+        private final int tileCol;
+
+        TileTask(CountedCompleter<?> completer,Wavefront wavefront,int tileRow,int tileCol){
+            super(completer);
+            this.wavefront = wavefront;
+            this.tileRow = tileRow;
+            this.tileCol = tileCol;
+        }
+
+        @Override
+        public void compute() {
+            Wavefront w = this.wavefront;
+            int rowFrom = this.tileRow * w.tileSize;
+            int colFrom = this.tileCol * w.tileSize;
+            w.filler.fill(this.tileRow,this.tileCol,rowFrom,Math.min(w.rows,rowFrom + w.tileSize),
+                    colFrom,Math.min(w.cols,colFrom + w.tileSize));
+            //右方分块
+            if(this.tileCol + 1 < w.tileCols
+                    && w.pending.decrementAndGet(this.tileRow * w.tileCols + this.tileCol + 1) == 0){
+                this.addToPendingCount(1);
+                new TileTask(this,w,this.tileRow,this.tileCol + 1).fork();
+            }
+            //下方分块
+            if(this.tileRow + 1 < w.tileRows
+                    && w.pending.decrementAndGet((this.tileRow + 1) * w.tileCols + this.tileCol) == 0){
+                this.addToPendingCount(1);
+                new TileTask(this,w,this.tileRow + 1,this.tileCol).fork();
+            }
+            this.tryComplete();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.zy.demo.util;
+
+import java.util.Arrays;
+
+/**
+ * 基本类型哈希表：long键 -> int值
+ *
+ * 与HashMap<Long,Integer>相比：
+ * 1、键值直接存储在long[]、int[]中，不需要装箱，也没有链表/红黑树结点对象，内存占用约为HashMap的1/4。
+ * 2、开放定址法(线性探测)解决哈希冲突，冲突的键存储在相邻位置，缓存友好。
+ * 3、哈希函数f(key) = (key * 黄金分割常数) >>> (64 - bits)，乘法散列使规律分布的键(如连续整数、状态编号拼接字符)也能均匀分布。
+ *
+ * 空槽用键0表示，键0本身单独存储。装载因子达到1/2时容量翻倍，容量最大为2^30，即最多2^29个键。
+ * 不支持删除操作，非线程安全。
+ *
+ * 增查的时间复杂度：O(1)
+ *
+ * @author zy
+ */
+public class LongIntHashMap {
+
+    //乘法散列常数(2^64/黄金分割比)
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+
+    //默认容量
+    private static final int DEFAULT_CAPACITY = 16;
+
+    //最大容量：数组长度为2的幂，超过2^30翻倍会溢出
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    //键数组，0表示空槽
+    private long[] keys;
+
+    //值数组
+    private int[] values;
+
+    //键的个数
+    private int size;
+
+    //容量的二进制位数
+    private int bits;
+
+    //键不存在时返回的值
+    private final int missingValue;
+
+    //键0是否存在
+    private boolean hasZeroKey;
+
+    //键0对应的值
+    private int zeroValue;
+
+    /**
+     * 无参构造方法，键不存在时返回-1
+     */
+    public LongIntHashMap(){
+        this(DEFAULT_CAPACITY,-1);
+    }
+
+    /**
+     * 指定预期键个数与缺省值的构造方法
+     * @param expectedSize 预期键个数，用于避免扩容
+     * @param missingValue 键不存在时返回的值
+     */
+    public LongIntHashMap(int expectedSize,int missingValue){
+        //装载因子不超过1/2，键个数最多为最大容量的一半
+        if(expectedSize < 0 || expectedSize > MAX_CAPACITY >>> 1){
+            throw new IllegalArgumentException("Illegal expectedSize=" + expectedSize);
+        }
+        //容量为2的幂，且装载因子不超过1/2
+        int capacity = DEFAULT_CAPACITY;
+        while(capacity < expectedSize * 2){
+            capacity <<= 1;
+        }
+        this.bits = Integer.numberOfTrailingZeros(capacity);
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.missingValue = missingValue;
+    }
+
+    /**
+     * 获取键的个数
+     * @return 键的个数
+     */
+    public int size(){
+        return this.size;
+    }
+
+    /**
+     * 判断是否包含指定键
+     * @param key 键
+     * @return 包含返回true；否则返回false。
+     */
+    public boolean containsKey(long key){
+        if(key == 0){
+            return this.hasZeroKey;
+        }
+        return this.keys[this.indexOf(key)] == key;
+    }
+
+    /**
+     * 获取键对应的值
+     * @param key 键
+     * @return 键对应的值；键不存在时返回缺省值。
+     */
+    public int get(long key){
+        if(key == 0){
+            return this.hasZeroKey ? this.zeroValue : this.missingValue;
+        }
+        int index = this.indexOf(key);
+        return this.keys[index] == key ? this.values[index] : this.missingValue;
+    }
+
+    /**
+     * 添加或覆盖键值对
+     * @param key 键
+     * @param value 值
+     * @return 原来的值；键不存在时返回缺省值。
+     */
+    public int put(long key,int value){
+        return this.put(key,value,true);
+    }
+
+    /**
+     * 键不存在时添加键值对，已存在时不覆盖
+     * @param key 键
+     * @param value 值
+     * @return 已存在的值；键不存在(本次添加成功)时返回缺省值。
+     */
+    public int putIfAbsent(long key,int value){
+        return this.put(key,value,false);
+    }
+
+    /**
+     * 清空哈希表，保留容量
+     */
+    public void clear(){
+        Arrays.fill(this.keys,0L);
+        this.size = 0;
+        this.hasZeroKey = false;
+    }
+
+    /**
+     * 添加键值对
+     * @param key 键
+     * @param value 值
+     * @param overwrite 键已存在时是否覆盖
+     * @return 原来的值；键不存在时返回缺省值。
+     */
+    private int put(long key,int value,boolean overwrite){
+        if(key == 0){
+            if(this.hasZeroKey){
+                int old = this.zeroValue;
+                if(overwrite){
+                    this.zeroValue = value;
+                }
+                return old;
+            }
+            this.hasZeroKey = true;
+            this.zeroValue = value;
+            this.size++;
+            return this.missingValue;
+        }
+        int index = this.indexOf(key);
+        if(this.keys[index] == key){
+            int old = this.values[index];
+            if(overwrite){
+                this.values[index] = value;
+            }
+            return old;
+        }
+        //空槽插入
+        this.keys[index] = key;
+        this.values[index] = value;
+        //装载因子达到1/2时扩容
+        if(++this.size * 2 > this.keys.length){
+            this.expand();
+        }
+        return this.missingValue;
+    }
+
+    /**
+     * 线性探测查找键所在的槽位
+     * @param key 非0键
+     * @return 键所在的槽位；键不存在时返回探测到的第一个空槽。
+     */
+    private int indexOf(long key){
+        long[] ks = this.keys;
+        int mask = ks.length - 1;
+        int index = (int) ((key * PHI) >>> (64 - this.bits));
+        long k;
+        while((k = ks[index]) != 0 && k != key){
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    /**
+     * 容量翻倍并重新散列
+     * 时间复杂度：O(n)
+     */
+    private void expand(){
+        if(this.keys.length == MAX_CAPACITY){
+            throw new OutOfMemoryError("LongIntHashMap capacity exceeded: size=" + this.size);
+        }
+        long[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        this.bits++;
+        this.keys = new long[oldKeys.length << 1];
+        this.values = new int[oldKeys.length << 1];
+        for(int i = 0 ; i < oldKeys.length ; i++){
+            long key = oldKeys[i];
+            if(key != 0){
+                int index = this.indexOf(key);
+                this.keys[index] = key;
+                this.values[index] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.zy.demo.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * 内存映射文件查找器：在超大文件(GB级别)中查找字节模式串
+ *
+ * {@link StringUtil}只能查找堆内的数组，读取整个文件到堆内既慢又占内存。
+ *
+ * 原理：
+ * 1、文件按段(默认64MB)使用{@link FileChannel#map}映射，不经过堆内缓冲区读取，由操作系统按页加载。
+ * 2、每段额外映射m-1个字节(m为模式串长度)，跨越段边界的匹配由起始位置所在的段找到，且只找到一次。
+ * 3、映射区域直接交给{@link StringSearcher}的{@link java.nio.ByteBuffer}重载查找(BMH/KMP)，按绝对位置读取，
+ *    不复制到堆内数组。
+ * 4、模式串按字节比较，文本与模式串使用同一编码即可(如UTF-8)，不需要解码文件。
+ * 5、各段互不依赖，可以并行查找；结果按偏移量升序返回。
+ *
+ * 匹配允许重叠，例如"aaa"中的"aa"出现在偏移量0、1。
+ *
+ * 性能：
+ * 时间复杂度：O(n+m)，并行时按段均分。
+ * 空间复杂度：堆内只有结果O(z)，z为匹配次数；映射区域占用虚拟地址空间，由操作系统按页加载与回收。
+ * 字段均为final，每次查找单独打开文件并按段映射，可以被多个线程同时使用。
+ *
+ * @author zy
+ */
+public final class MappedFileSearcher {
+
+    //默认段大小
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 26;
+
+    //字节模式串查找器：每个字节作为一个0~255的字符
+    private final StringSearcher searcher;
+
+    //模式串长度
+    private final int patternLength;
+
+    //段大小
+    private final int segmentSize;
+
+    /**
+     * 使用默认段大小构建查找器
+     * @param pattern 字节模式串，非空
+     */
+    public MappedFileSearcher(byte[] pattern){
+        this(pattern,DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * 构建查找器，模式串按指定编码转换为字节
+     * @param pattern 模式串，非空
+     * @param charset 文件的编码
+     */
+    public MappedFileSearcher(String pattern,Charset charset){
+        this(pattern == null || charset == null ? null : pattern.getBytes(charset),DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * 构建查找器
+     * @param pattern 字节模式串，非空
+     * @param segmentSize 段大小，即每次映射的字节数(不含重叠部分)
+     */
+    public MappedFileSearcher(byte[] pattern,int segmentSize){
+        //入参校验
+        if(pattern == null || pattern.length == 0){
+            throw new IllegalArgumentException("Illegal pattern: empty!");
+        }
+        if(segmentSize <= 0 || segmentSize > Integer.MAX_VALUE - pattern.length){
+            throw new IllegalArgumentException("Illegal segmentSize=" + segmentSize);
+        }
+        char[] chars = new char[pattern.length];
+        for(int i = 0 ; i < pattern.length ; i++){
+            chars[i] = (char) (pattern[i] & 0xFF);
+        }
+        this.searcher = new StringSearcher(chars);
+        this.patternLength = pattern.length;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * 判断文件中是否包含模式串，找到第一个匹配即返回
+     * @param file 文件
+     * @return 如果存在返回true；否则返回false。
+     * @throws IOException 读取文件失败
+     */
+    public boolean contains(Path file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file,StandardOpenOption.READ)){
+            long fileSize = channel.size();
+            for(long segment = 0 ; segment < this.segments(fileSize) ; segment++){
+                if(this.scan(channel,fileSize,segment,null)){
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 查找模式串在文件中全部出现的偏移量
+     *
+     * 按段延迟查找：顺序流只在消费到某段时才映射并查找该段；并行流由多个线程同时查找不同的段。
+     * 流持有打开的文件，使用完毕需要关闭(try-with-resources)。读取失败时抛出{@link UncheckedIOException}。
+     *
+     * @param file 文件
+     * @param parallel 是否并行查找
+     * @return 全部出现的偏移量(升序)
+     * @throws IOException 打开文件失败
+     */
+    public LongStream indexes(Path file,boolean parallel) throws IOException {
+        FileChannel channel = FileChannel.open(file,StandardOpenOption.READ);
+        long fileSize;
+        try{
+            fileSize = channel.size();
+        }catch(IOException e){
+            channel.close();
+            throw e;
+        }
+        LongStream segments = LongStream.range(0,this.segments(fileSize));
+        if(parallel){
+            segments = segments.parallel();
+        }
+        return segments.flatMap(segment -> {
+            OffsetCollector collector = new OffsetCollector();
+            this.scan(channel,fileSize,segment,collector);
+            return collector.stream();
+        }).onClose(() -> {
+            try{
+                channel.close();
+            }catch(IOException e){
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * 段数，文件长度小于模式串长度时为0
+     */
+    private long segments(long fileSize){
+        if(fileSize < this.patternLength){
+            return 0;
+        }
+        return (fileSize + this.segmentSize - 1) / this.segmentSize;
+    }
+
+    /**
+     * 映射并查找一段：本段起始的全部匹配
+     * @param channel 文件
+     * @param fileSize 文件长度
+     * @param segment 段序号
+     * @param collector 收集匹配偏移量，为null时找到第一个匹配即返回
+     * @return 存在匹配返回true；否则返回false。
+     */
+    private boolean scan(FileChannel channel,long fileSize,long segment,OffsetCollector collector){
+        long start = segment * this.segmentSize;
+        //本段长度，以及额外映射m-1个字节后的长度
+        int own = (int) Math.min(this.segmentSize,fileSize - start);
+        int mapped = (int) Math.min((long) own + this.patternLength - 1,fileSize - start);
+        MappedByteBuffer buffer;
+        try{
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY,start,mapped);
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+        //映射区域只比本段多m-1个字节，起始位置在下一段的匹配不会在本段找到
+        if(collector == null){
+            return this.searcher.indexOf(buffer,0,mapped) >= 0;
+        }
+        collector.base = start;
+        return this.searcher.forEachMatch(buffer,0,mapped,true,collector) > 0;
+    }
+
+    /**
+     * 收集匹配偏移量：段内位置加上段在文件中的偏移量
+     */
+    private static final class OffsetCollector implements IntConsumer {
+
+        //当前段在文件中的偏移量
+        private long base;
+
+        private long[] values = new long[16];
+
+        private int size;
+
+        @Override
+        public void accept(int value) {
+            if(this.size == this.values.length){
+                this.values = Arrays.copyOf(this.values,this.size * 2);
+            }
+            this.values[this.size++] = this.base + value;
+        }
+
+        LongStream stream(){
+            return Arrays.stream(this.values,0,this.size);
+        }
+    }
+}
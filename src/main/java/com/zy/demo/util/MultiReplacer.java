@@ -0,0 +1,362 @@
+package com.zy.demo.util;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * 多模式串替换器(Aho-Corasick自动机)
+ *
+ * 对每个模式串分别调用{@link StringUtil#replace(char[], char[])}时，k个模式串需要扫描文本k次、分配k次。
+ * 本类把全部模式串构建为一个自动机，扫描一次文本即可找到全部模式串的全部匹配，按实际长度只分配一次结果数组。
+ *
+ * 原理：
+ * 1、字典树：全部模式串构成字典树，结点即状态，转移存储在{@link LongIntHashMap}中，键为(状态<<16)|字符。
+ * 2、失配指针：状态u的失配指针指向u所代表字符串的最长真后缀对应的状态，广度优先构建。
+ *    扫描文本时转移失败沿失配指针回退，文本指针不回退，均摊时间复杂度O(n)。
+ * 3、输出链接：指向沿失配指针遇到的第一个模式串结束状态，用于列出以当前位置结束的全部模式串。
+ * 4、扫描时确定匹配：扫描到位置i时，之后出现的匹配的起始位置不小于i-d+1(d为当前状态的深度，即当前状态对应字符串的长度)，
+ *    小于该位置的起始位置已经不会再出现新的匹配，可以按最左最长规则确定。
+ *    尚未确定的起始位置不超过最长模式串长度个，记录在环形缓冲区中。
+ *
+ * 替换规则(最左最长，不重叠)：
+ * 从左到右，选择起始位置最小的匹配，同一起始位置选择最长的模式串，替换后从匹配结束处继续。
+ * 例如模式串"he"、"hers"、"she"，文本"ushers"中"she"起始位置最小，替换"she"后剩余"rs"不再匹配。
+ *
+ * 性能：
+ * 构建：时间复杂度O(M)，M为模式串总长度。
+ * 替换：扫描一次文本，时间复杂度O(n+z)，z为匹配次数；
+ *       额外空间为环形缓冲区O(L)(L为最长模式串长度)与匹配列表O(z)，结果数组按替换后的长度只分配一次。
+ *
+ * 提供byte[]重载，直接替换Latin-1文本，见{@link #replace(byte[], int, int)}。
+ * 自动机的转移表与各状态数组均为final字段，只在构建时写入；匹配列表每次替换时新建，可以被多个线程同时使用。
+ *
+ * @author zy
+ */
+public final class MultiReplacer {
+
+    //模式串
+    private final char[][] patterns;
+
+    //替换串
+    private final char[][] replacements;
+
+    //Latin-1编码的替换串，存在大于255的字符时为null
+    private final byte[][] latin1Replacements;
+
+    //转移：(状态<<16)|字符 -> 子状态
+    private final LongIntHashMap transitions;
+
+    //状态：失配指针
+    private final int[] fail;
+
+    //状态：以该状态结束的模式串，-1表示不是模式串结束状态
+    private final int[] output;
+
+    //状态：输出链接，-1表示不存在
+    private final int[] dictLink;
+
+    //状态：深度，即状态对应字符串的长度
+    private final int[] depth;
+
+    //最长模式串长度
+    private final int maxLength;
+
+    /**
+     * 构建替换器
+     * @param replacements 模式串 -> 替换串，模式串非空，替换串为空字符串时表示删除
+     */
+    public MultiReplacer(Map<String,String> replacements){
+        //入参校验
+        if(replacements == null || replacements.isEmpty()){
+            throw new IllegalArgumentException("Illegal replacements: empty!");
+        }
+        int k = replacements.size();
+        this.patterns = new char[k][];
+        this.replacements = new char[k][];
+        int totalLength = 0;
+        int longest = 0;
+        int index = 0;
+        for(Map.Entry<String,String> entry : replacements.entrySet()){
+            if(entry.getKey() == null || entry.getKey().isEmpty() || entry.getValue() == null){
+                throw new IllegalArgumentException("Illegal replacement: " + entry.getKey() + "=" + entry.getValue());
+            }
+            this.patterns[index] = entry.getKey().toCharArray();
+            this.replacements[index] = entry.getValue().toCharArray();
+            totalLength += this.patterns[index].length;
+            longest = Math.max(longest,this.patterns[index].length);
+            index++;
+        }
+        byte[][] latin1 = new byte[k][];
+        for(int p = 0 ; p < k && latin1 != null ; p++){
+            latin1[p] = StringSearcher.toLatin1(this.replacements[p]);
+            if(latin1[p] == null){
+                latin1 = null;
+            }
+        }
+        this.latin1Replacements = latin1;
+        this.maxLength = longest;
+        //状态数不超过模式串总长度+1
+        int capacity = totalLength + 1;
+        this.transitions = new LongIntHashMap(totalLength,-1);
+        this.fail = new int[capacity];
+        this.output = new int[capacity];
+        this.dictLink = new int[capacity];
+        this.depth = new int[capacity];
+        Arrays.fill(this.output,-1);
+        //子状态链表与入边字符，用于广度优先遍历
+        int[] firstChild = new int[capacity];
+        int[] sibling = new int[capacity];
+        char[] charOf = new char[capacity];
+        Arrays.fill(firstChild,-1);
+        //构建字典树
+        int stateCount = 1;
+        for(int p = 0 ; p < k ; p++){
+            int state = 0;
+            for(char c : this.patterns[p]){
+                int next = this.transitions.get(key(state,c));
+                if(next < 0){
+                    next = stateCount++;
+                    this.transitions.put(key(state,c),next);
+                    charOf[next] = c;
+                    this.depth[next] = this.depth[state] + 1;
+                    sibling[next] = firstChild[state];
+                    firstChild[state] = next;
+                }
+                state = next;
+            }
+            this.output[state] = p;
+        }
+        //广度优先构建失配指针与输出链接：父状态的指针总是先于子状态完成
+        int[] queue = new int[stateCount];
+        int head = 0;
+        int tail = 0;
+        this.dictLink[0] = -1;
+        for(int u = firstChild[0] ; u >= 0 ; u = sibling[u]){
+            this.fail[u] = 0;
+            this.dictLink[u] = -1;
+            queue[tail++] = u;
+        }
+        while(head < tail){
+            int v = queue[head++];
+            for(int u = firstChild[v] ; u >= 0 ; u = sibling[u]){
+                //沿父状态的失配指针找到第一个有同一字符转移的状态
+                this.fail[u] = this.step(this.fail[v],charOf[u]);
+                int f = this.fail[u];
+                this.dictLink[u] = this.output[f] >= 0 ? f : this.dictLink[f];
+                queue[tail++] = u;
+            }
+        }
+    }
+
+    /**
+     * 替换文本
+     * @param text 文本
+     * @return 替换后的文本
+     */
+    public String replace(String text){
+        if(text == null || text.isEmpty()){
+            return text;
+        }
+        char[] chars = text.toCharArray();
+        return new String(this.replace(chars,0,chars.length));
+    }
+
+    /**
+     * 替换文本区间[from,to)，返回新的字符数组
+     *
+     * 1、扫描文本一次，扫描的同时按最左最长规则确定不重叠的匹配，记录到匹配列表。
+     * 2、按匹配列表计算替换后的长度，只分配一次结果数组，未匹配片段与替换串使用System.arraycopy整段复制。
+     *
+     * @param text 文本
+     * @param from 起始位置(包含)
+     * @param to 终止位置(不包含)
+     * @return 替换后的区间文本，长度恰好为替换后的长度
+     */
+    public char[] replace(char[] text,int from,int to){
+        if(text == null){
+            throw new IllegalArgumentException("Illegal text!");
+        }
+        checkRange(text.length,from,to);
+        Matches matches = new Matches();
+        matches.scan(text,null,from,to);
+        if(matches.size == 0){
+            return Arrays.copyOfRange(text,from,to);
+        }
+        char[] result = new char[matches.replacedLength(to - from)];
+        matches.assemble(text,from,to,this.replacements,result);
+        return result;
+    }
+
+    /**
+     * 判断替换串是否均可按Latin-1编码(全部字符不大于255)，是则可以使用{@link #replace(byte[], int, int)}
+     * @return 可以返回true；否则返回false。
+     */
+    public boolean isLatin1(){
+        return this.latin1Replacements != null;
+    }
+
+    /**
+     * 替换Latin-1文本区间[from,to)，直接在字节数组上扫描，返回新的字节数组
+     * @param text Latin-1文本
+     * @param from 起始位置(包含)
+     * @param to 终止位置(不包含)
+     * @return 替换后的区间文本，长度恰好为替换后的长度
+     */
+    public byte[] replace(byte[] text,int from,int to){
+        if(text == null){
+            throw new IllegalArgumentException("Illegal text!");
+        }
+        if(this.latin1Replacements == null){
+            throw new IllegalStateException("Replacements are not Latin-1!");
+        }
+        checkRange(text.length,from,to);
+        Matches matches = new Matches();
+        matches.scan(null,text,from,to);
+        if(matches.size == 0){
+            return Arrays.copyOfRange(text,from,to);
+        }
+        byte[] result = new byte[matches.replacedLength(to - from)];
+        matches.assemble(text,from,to,this.latin1Replacements,result);
+        return result;
+    }
+
+    /**
+     * 区间校验
+     */
+    private static void checkRange(int length,int from,int to){
+        if(from < 0 || to > length || from > to){
+            throw new IndexOutOfBoundsException("Illegal range: from=" + from + ", to=" + to + ", length=" + length);
+        }
+    }
+
+    /**
+     * 由状态经字符转移，转移失败时沿失配指针回退
+     * @param state 状态
+     * @param c 字符
+     * @return 转移后的状态
+     */
+    private int step(int state,char c){
+        int next;
+        while((next = this.transitions.get(key(state,c))) < 0 && state != 0){
+            state = this.fail[state];
+        }
+        return next < 0 ? 0 : next;
+    }
+
+    /**
+     * 转移的键：状态编号拼接字符
+     */
+    private static long key(int state,char c){
+        return ((long) state << 16) | c;
+    }
+
+    /**
+     * 一次替换的匹配列表：扫描时按最左最长规则确定的不重叠匹配
+     */
+    private final class Matches {
+
+        //环形缓冲区：尚未确定的起始位置s的最长模式串编号+1存储在ring[s % ring.length]，0表示没有
+        private final int[] ring = new int[MultiReplacer.this.maxLength + 1];
+
+        //尚未确定的最小起始位置(相对区间起点)
+        private int pending;
+
+        //匹配列表：起始位置(相对区间起点)与模式串编号交替存储
+        private int[] values = new int[16];
+
+        //匹配个数
+        private int size;
+
+        /**
+         * 扫描文本区间[from,to)，chars与bytes只有一个不为null
+         */
+        void scan(char[] chars,byte[] bytes,int from,int to){
+            int n = to - from;
+            int state = 0;
+            for(int i = 0 ; i < n ; i++){
+                char c = chars != null ? chars[from + i] : (char) (bytes[from + i] & 0xFF);
+                state = MultiReplacer.this.step(state,c);
+                //记录以位置i结束的全部模式串(由长到短)
+                int t = MultiReplacer.this.output[state] >= 0 ? state : MultiReplacer.this.dictLink[state];
+                for( ; t >= 0 ; t = MultiReplacer.this.dictLink[t]){
+                    int p = MultiReplacer.this.output[t];
+                    int start = i - MultiReplacer.this.patterns[p].length + 1;
+                    int slot = start % this.ring.length;
+                    if(start >= this.pending && (this.ring[slot] == 0
+                            || MultiReplacer.this.patterns[this.ring[slot] - 1].length < MultiReplacer.this.patterns[p].length)){
+                        this.ring[slot] = p + 1;
+                    }
+                }
+                //之后的匹配起始位置不小于i-d+1
+                this.settle(i - MultiReplacer.this.depth[state] + 1);
+            }
+            this.settle(n);
+        }
+
+        /**
+         * 确定起始位置小于limit的匹配
+         */
+        private void settle(int limit){
+            while(this.pending < limit){
+                int slot = this.pending % this.ring.length;
+                int p = this.ring[slot] - 1;
+                if(p < 0){
+                    this.pending++;
+                    continue;
+                }
+                if(this.size * 2 == this.values.length){
+                    this.values = Arrays.copyOf(this.values,this.values.length * 2);
+                }
+                this.values[this.size * 2] = this.pending;
+                this.values[this.size * 2 + 1] = p;
+                this.size++;
+                //跳过被替换的区间，清除其中记录的起始位置
+                int end = this.pending + MultiReplacer.this.patterns[p].length;
+                for(int s = this.pending ; s < end ; s++){
+                    this.ring[s % this.ring.length] = 0;
+                }
+                this.pending = end;
+            }
+        }
+
+        /**
+         * 替换后的长度
+         */
+        int replacedLength(int n){
+            long newLen = n;
+            for(int k = 0 ; k < this.size ; k++){
+                int p = this.values[k * 2 + 1];
+                newLen += MultiReplacer.this.replacements[p].length - MultiReplacer.this.patterns[p].length;
+            }
+            if(newLen > Integer.MAX_VALUE - 8){
+                throw new OutOfMemoryError("Replaced length too large: " + newLen);
+            }
+            return (int) newLen;
+        }
+
+        /**
+         * 整段复制未匹配片段与替换串，char[]与byte[]共用
+         * @param text 文本数组
+         * @param from 区间起点
+         * @param to 区间终点
+         * @param replacements 与文本数组同类型的替换串
+         * @param result 与文本数组同类型的结果数组
+         */
+        void assemble(Object text,int from,int to,Object[] replacements,Object result){
+            int pos = 0;
+            //未匹配片段起始位置
+            int segment = from;
+            for(int k = 0 ; k < this.size ; k++){
+                int start = from + this.values[k * 2];
+                int p = this.values[k * 2 + 1];
+                System.arraycopy(text,segment,result,pos,start - segment);
+                pos += start - segment;
+                int len = MultiReplacer.this.replacements[p].length;
+                System.arraycopy(replacements[p],0,result,pos,len);
+                pos += len;
+                segment = start + MultiReplacer.this.patterns[p].length;
+            }
+            System.arraycopy(text,segment,result,pos,to - segment);
+        }
+    }
+}
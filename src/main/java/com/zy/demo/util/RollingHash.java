@@ -0,0 +1,253 @@
+package com.zy.demo.util;
+
+import java.util.Arrays;
+
+/**
+ * 滚动哈希(Rabin-Karp)：查找重复窗口、按内容切分数据块
+ *
+ * 对每个窗口调用{@link StringUtil#contains(char[])}查找重复内容时，时间复杂度O(n^2)。
+ *
+ * 原理：
+ * 1、多项式哈希：h(s[i..i+k)) = s[i]*B^(k-1) + s[i+1]*B^(k-2) + ... + s[i+k-1]，对梅森素数P=2^61-1取模。
+ *    对梅森素数取模只需要移位与加法：x mod P = (x >>> 61) + (x & P)，再最多减一次P。
+ * 2、滚动：窗口右移一位时减去移出字符的贡献s[i]*B^(k-1)，乘以B再加上移入字符，每个窗口O(1)，不创建对象。
+ * 3、重复窗口：哈希值 -> 第一次出现的位置存储在{@link LongIntHashMap}中(不装箱)，
+ *    哈希值已存在时逐个字符比较两个窗口，排除哈希冲突，报告的重复一定是真重复。
+ *    两个不同窗口哈希冲突的概率约为k/P，冲突时后出现的窗口不会被报告。
+ * 4、按内容切分(content-defined chunking)：对最近window个字符的滚动哈希，低位全为1时作为块边界。
+ *    边界只取决于附近的内容，文本中间插入、删除字符只影响附近的块，其余块不变，适合去重存储。
+ *    块长度限制在[minSize,maxSize]之间，平均块长度约为minSize+averageSize。
+ *
+ * 文本为{@link CharSequence}，可以直接传入{@link StringUtil}、String、{@link Rope}。
+ *
+ * 性能：
+ * 时间复杂度：O(n)(重复窗口另需O(k)逐个比较)
+ * 空间复杂度：重复窗口O(n)(哈希表)；切分O(n/averageSize)(边界数组)
+ *
+ * @author zy
+ */
+public final class RollingHash {
+
+    //模数：梅森素数2^61-1
+    private static final long MOD = (1L << 61) - 1;
+
+    //底数：固定取值，同一内容在不同进程中的哈希值与块边界相同
+    private static final long BASE = 0x5DEECE66DL;
+
+    private RollingHash(){
+    }
+
+    /**
+     * 重复窗口处理函数
+     */
+    @FunctionalInterface
+    public interface RepeatHandler {
+
+        /**
+         * 处理一个重复窗口
+         * @param position 重复窗口的起始位置
+         * @param firstPosition 相同内容第一次出现的起始位置
+         */
+        void accept(int position,int firstPosition);
+    }
+
+    /**
+     * 查找与之前的窗口内容相同的全部长度为k的窗口
+     * @param text 文本
+     * @param k 窗口长度
+     * @return 重复窗口的起始位置(升序)；不存在返回空数组。
+     */
+    public static int[] findRepeats(CharSequence text,int k){
+        RepeatCollector collector = new RepeatCollector();
+        forEachRepeat(text,k,collector);
+        return Arrays.copyOf(collector.values,collector.size);
+    }
+
+    /**
+     * 按位置升序逐个处理与之前的窗口内容相同的长度为k的窗口，不创建结果数组
+     * @param text 文本
+     * @param k 窗口长度
+     * @param handler 处理函数
+     * @return 重复窗口个数
+     */
+    public static int forEachRepeat(CharSequence text,int k,RepeatHandler handler){
+        //入参校验
+        if(text == null){
+            throw new IllegalArgumentException("Illegal text!");
+        }
+        if(k <= 0){
+            throw new IllegalArgumentException("Illegal k=" + k);
+        }
+        if(handler == null){
+            throw new IllegalArgumentException("Illegal handler!");
+        }
+        int n = text.length();
+        if(k > n){
+            return 0;
+        }
+        //B^(k-1)：移出字符的权重
+        long power = pow(BASE,k - 1);
+        LongIntHashMap first = new LongIntHashMap(n - k + 1,-1);
+        long hash = 0;
+        for(int i = 0 ; i < k - 1 ; i++){
+            hash = roll(hash,text.charAt(i));
+        }
+        int count = 0;
+        for(int i = 0 ; i + k <= n ; i++){
+            hash = roll(hash,text.charAt(i + k - 1));
+            int position = first.putIfAbsent(hash,i);
+            //哈希值已存在：逐个字符比较，排除冲突
+            if(position >= 0 && regionEquals(text,position,i,k)){
+                handler.accept(i,position);
+                count++;
+            }
+            //移出窗口首字符
+            hash = subtract(hash,mulMod(text.charAt(i),power));
+        }
+        return count;
+    }
+
+    /**
+     * 按内容切分数据块，返回各块的终止位置
+     * 窗口内容的滚动哈希低位全为1且块长度不小于minSize时切分；块长度达到maxSize时强制切分。
+     * @param text 文本
+     * @param window 滚动哈希的窗口长度
+     * @param minSize 最小块长度
+     * @param averageSize 切分概率的倒数，2的幂
+     * @param maxSize 最大块长度
+     * @return 各块的终止位置(不包含，升序)，最后一个为文本长度；空文本返回空数组。
+     */
+    public static int[] chunkBoundaries(CharSequence text,int window,int minSize,int averageSize,int maxSize){
+        //入参校验
+        if(text == null){
+            throw new IllegalArgumentException("Illegal text!");
+        }
+        if(window <= 0){
+            throw new IllegalArgumentException("Illegal window=" + window);
+        }
+        if(minSize <= 0){
+            throw new IllegalArgumentException("Illegal minSize=" + minSize);
+        }
+        if(averageSize <= 0 || (averageSize & (averageSize - 1)) != 0){
+            throw new IllegalArgumentException("Illegal averageSize=" + averageSize);
+        }
+        if(maxSize < minSize){
+            throw new IllegalArgumentException("Illegal maxSize=" + maxSize);
+        }
+        int n = text.length();
+        long power = pow(BASE,window - 1);
+        long mask = averageSize - 1;
+        int[] boundaries = new int[16];
+        int count = 0;
+        long hash = 0;
+        //当前块起始位置
+        int start = 0;
+        for(int i = 0 ; i < n ; i++){
+            //窗口已满时先移出窗口首字符
+            if(i >= window){
+                hash = subtract(hash,mulMod(text.charAt(i - window),power));
+            }
+            hash = roll(hash,text.charAt(i));
+            int len = i + 1 - start;
+            if(len >= maxSize || (len >= minSize && (hash & mask) == mask)){
+                if(count == boundaries.length){
+                    boundaries = Arrays.copyOf(boundaries,count * 2);
+                }
+                boundaries[count++] = i + 1;
+                start = i + 1;
+            }
+        }
+        //最后一块
+        if(start < n){
+            if(count == boundaries.length){
+                boundaries = Arrays.copyOf(boundaries,count + 1);
+            }
+            boundaries[count++] = n;
+        }
+        return Arrays.copyOf(boundaries,count);
+    }
+
+    /**
+     * 哈希值乘以底数再加上移入的字符
+     */
+    private static long roll(long hash,char c){
+        long result = mulMod(hash,BASE) + c;
+        return result >= MOD ? result - MOD : result;
+    }
+
+    /**
+     * (a - b) mod P，a、b均小于P
+     */
+    private static long subtract(long a,long b){
+        long result = a - b;
+        return result < 0 ? result + MOD : result;
+    }
+
+    /**
+     * (a * b) mod P，a、b均小于P
+     * 乘积最多122位，把a、b拆分为高30位与低31位分别相乘，利用2^61 mod P = 1合并，中间结果不超过63位。
+     */
+    private static long mulMod(long a,long b){
+        long aHigh = a >>> 31;
+        long aLow = a & 0x7FFFFFFFL;
+        long bHigh = b >>> 31;
+        long bLow = b & 0x7FFFFFFFL;
+        //a*b = aHigh*bHigh*2^62 + middle*2^31 + aLow*bLow
+        long middle = aLow * bHigh + aHigh * bLow;
+        //2^62 = 2 (mod P)；middle*2^31 = (middle>>>30)*2^61 + (middle&(2^30-1))*2^31 = (middle>>>30) + (middle&(2^30-1))*2^31 (mod P)
+        return mod(aHigh * bHigh * 2 + (middle >>> 30) + ((middle & 0x3FFFFFFFL) << 31) + aLow * bLow);
+    }
+
+    /**
+     * x mod P，x为非负数
+     */
+    private static long mod(long x){
+        long result = (x >>> 61) + (x & MOD);
+        return result >= MOD ? result - MOD : result;
+    }
+
+    /**
+     * base^exponent mod P(快速幂)
+     */
+    private static long pow(long base,int exponent){
+        long result = 1;
+        while(exponent > 0){
+            if((exponent & 1) == 1){
+                result = mulMod(result,base);
+            }
+            base = mulMod(base,base);
+            exponent >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * 比较两个长度为k的窗口
+     */
+    private static boolean regionEquals(CharSequence text,int a,int b,int k){
+        for(int i = 0 ; i < k ; i++){
+            if(text.charAt(a + i) != text.charAt(b + i)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 收集重复窗口的起始位置，结束时按实际个数复制一次
+     */
+    private static final class RepeatCollector implements RepeatHandler {
+
+        private int[] values = new int[16];
+
+        private int size;
+
+        @Override
+        public void accept(int position,int firstPosition) {
+            if(this.size == this.values.length){
+                this.values = Arrays.copyOf(this.values,this.size * 2);
+            }
+            this.values[this.size++] = position;
+        }
+    }
+}
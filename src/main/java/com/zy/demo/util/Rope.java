@@ -0,0 +1,450 @@
+package com.zy.demo.util;
+
+import java.util.Arrays;
+
+/**
+ * 绳索(rope)字符串：适合频繁在任意位置插入、删除的文本
+ *
+ * {@link StringUtil}用一个连续的字符数组存储，在中间插入、删除需要移动插入点之后的全部字符，时间复杂度O(n)。
+ *
+ * 原理：
+ * 1、文本切分为不超过512个字符的块，作为平衡二叉树(AVL)的叶子结点，按中序排列；非叶子结点记录子树的字符个数。
+ * 2、分裂：按字符个数从根结点向下查找位置，把树分裂为左右两棵树，沿途结点重新连接，时间复杂度O(logn)。
+ * 3、连接：高度较高的树沿边界向下找到高度相近的子树再连接，回溯时旋转保持平衡，时间复杂度O(logn)。
+ *    连接处左树的最后一个叶子与右树的第一个叶子：合计不超过512个字符时合并为一个叶子；
+ *    否则其中一个不足256个字符时平均分配为两个叶子。分裂产生的零碎叶子在插入、删除的连接处被合并，反复插入小字符串也不会碎片化。
+ * 4、插入 = 分裂 + 连接 + 连接，删除 = 分裂 + 分裂 + 连接。
+ * 5、追加写入尾部缓冲区(首次追加时分配)，缓冲区满512个字符时整块作为叶子连接到树的末尾，均摊时间复杂度O(1)。
+ *
+ * 结点创建后不再修改，子串与原字符串共享结点，{@link #subSequence(int, int)}不修改原字符串，只复制尾部缓冲区中的部分(不超过512个字符)。
+ *
+ * 性能：
+ * 插入、删除、随机访问：时间复杂度O(logn)
+ * 追加：均摊时间复杂度O(1)
+ * 非线程安全。
+ *
+ * @author zy
+ */
+public final class Rope implements CharSequence {
+
+    //叶子结点最大字符个数
+    private static final int MAX_LEAF = 512;
+
+    //连接处的叶子少于该字符个数时合并或平均分配
+    private static final int MIN_LEAF = MAX_LEAF / 2;
+
+    //树的根结点(不含尾部缓冲区)，空树为null
+    private Node root;
+
+    //尾部缓冲区，首次追加时分配
+    private char[] tail;
+
+    //尾部缓冲区字符个数
+    private int tailSize;
+
+    /**
+     * 无参构造方法
+     */
+    public Rope(){
+    }
+
+    /**
+     * 指定初始字符串的构造方法
+     * @param chars 初始字符串
+     */
+    public Rope(char[] chars){
+        this();
+        if(chars != null && chars.length > 0){
+            this.root = build(chars,0,chars.length);
+        }
+    }
+
+    /**
+     * 由树构造(子串)
+     */
+    private Rope(Node root){
+        this.root = root;
+    }
+
+    /**
+     * 获取字符串的长度
+     * @return 字符个数
+     */
+    @Override
+    public int length() {
+        return length(this.root) + this.tailSize;
+    }
+
+    /**
+     * 获取指定位置的字符
+     * 时间复杂度：O(logn)
+     * @param index 位置
+     * @return 字符
+     */
+    @Override
+    public char charAt(int index) {
+        int treeLen = length(this.root);
+        if(index < 0 || index >= treeLen + this.tailSize){
+            throw new IndexOutOfBoundsException("Illegal index=" + index);
+        }
+        if(index >= treeLen){
+            return this.tail[index - treeLen];
+        }
+        Node node = this.root;
+        while(node.chars == null){
+            if(index < node.left.length){
+                node = node.left;
+            }else{
+                index -= node.left.length;
+                node = node.right;
+            }
+        }
+        return node.chars[index];
+    }
+
+    /**
+     * 获取子串，与原字符串共享结点，不修改原字符串
+     * 时间复杂度：O(logn)
+     * @param start 起始位置(包含)
+     * @param end 终止位置(不包含)
+     * @return 子串
+     */
+    @Override
+    public Rope subSequence(int start,int end) {
+        this.checkRange(start,end);
+        int treeLen = length(this.root);
+        //树中的部分
+        Node node = null;
+        if(start < treeLen){
+            Node left = split(this.root,Math.min(end,treeLen))[0];
+            node = split(left,start)[1];
+        }
+        //尾部缓冲区中的部分
+        if(end > Math.max(start,treeLen)){
+            int from = Math.max(start,treeLen) - treeLen;
+            node = join(node,new Node(Arrays.copyOfRange(this.tail,from,end - treeLen)));
+        }
+        return new Rope(node);
+    }
+
+    /**
+     * 在末尾追加字符串
+     * 时间复杂度：均摊O(m)，与已有长度无关
+     * @param chars 要追加的字符数组
+     * @return 追加后的字符串
+     */
+    public Rope addLast(char[] chars){
+        if(chars == null){
+            return this;
+        }
+        if(this.tail == null){
+            this.tail = new char[MAX_LEAF];
+        }
+        int offset = 0;
+        while(offset < chars.length){
+            int len = Math.min(MAX_LEAF - this.tailSize,chars.length - offset);
+            System.arraycopy(chars,offset,this.tail,this.tailSize,len);
+            this.tailSize += len;
+            offset += len;
+            //缓冲区已满，整块连接到树的末尾
+            if(this.tailSize == MAX_LEAF){
+                this.root = join(this.root,new Node(this.tail));
+                this.tail = new char[MAX_LEAF];
+                this.tailSize = 0;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 在末尾追加字符串
+     * @param s 要追加的字符串
+     * @return 追加后的字符串
+     */
+    public Rope addLast(CharSequence s){
+        if(s == null){
+            return this;
+        }
+        return this.addLast(s.toString().toCharArray());
+    }
+
+    /**
+     * 在指定位置插入字符串
+     * 时间复杂度：O(m+logn)
+     * @param index 位置，等于长度时追加到末尾
+     * @param chars 要插入的字符数组
+     * @return 插入后的字符串
+     */
+    public Rope add(int index,char[] chars){
+        int len = this.length();
+        if(index < 0 || index > len){
+            throw new IndexOutOfBoundsException("Illegal index=" + index);
+        }
+        if(chars == null || chars.length == 0){
+            return this;
+        }
+        if(index == len){
+            return this.addLast(chars);
+        }
+        this.flush();
+        Node[] parts = split(this.root,index);
+        this.root = join(join(parts[0],build(chars,0,chars.length)),parts[1]);
+        return this;
+    }
+
+    /**
+     * 删除区间[start,end)的字符
+     * 时间复杂度：O(logn)
+     * @param start 起始位置(包含)
+     * @param end 终止位置(不包含)
+     * @return 删除后的字符串
+     */
+    public Rope delete(int start,int end){
+        this.checkRange(start,end);
+        if(start == end){
+            return this;
+        }
+        this.flush();
+        Node[] right = split(this.root,end);
+        Node[] left = split(right[0],start);
+        this.root = join(left[0],right[1]);
+        return this;
+    }
+
+    /**
+     * 转换为字符数组
+     * 时间复杂度：O(n)
+     * @return 字符数组
+     */
+    public char[] toCharArray(){
+        int treeLen = length(this.root);
+        char[] result = new char[treeLen + this.tailSize];
+        copyTo(this.root,result,0);
+        if(this.tailSize > 0){
+            System.arraycopy(this.tail,0,result,treeLen,this.tailSize);
+        }
+        return result;
+    }
+
+    /**
+     * 打印字符串
+     */
+    @Override
+    public String toString() {
+        return new String(this.toCharArray());
+    }
+
+    /**
+     * 区间校验
+     */
+    private void checkRange(int start,int end){
+        if(start < 0 || end > this.length() || start > end){
+            throw new IndexOutOfBoundsException("Illegal range: start=" + start + ", end=" + end);
+        }
+    }
+
+    /**
+     * 尾部缓冲区连接到树的末尾
+     */
+    private void flush(){
+        if(this.tailSize > 0){
+            this.root = join(this.root,new Node(Arrays.copyOf(this.tail,this.tailSize)));
+            this.tailSize = 0;
+        }
+    }
+
+    /**
+     * 由字符数组区间构建完全平衡的树
+     */
+    private static Node build(char[] chars,int from,int to){
+        if(to - from <= MAX_LEAF){
+            return new Node(Arrays.copyOfRange(chars,from,to));
+        }
+        int middle = (from + to) >>> 1;
+        return new Node(build(chars,from,middle),build(chars,middle,to));
+    }
+
+    /**
+     * 分裂：前index个字符为左树，其余为右树
+     * 被分裂的叶子产生的零碎叶子位于两棵树的边界，由之后的{@link #join(Node, Node)}合并。
+     * @return [左树,右树]，空树为null
+     */
+    private static Node[] split(Node node,int index){
+        if(index == 0){
+            return new Node[]{null,node};
+        }
+        if(index == length(node)){
+            return new Node[]{node,null};
+        }
+        if(node.chars != null){
+            return new Node[]{new Node(Arrays.copyOfRange(node.chars,0,index)),
+                    new Node(Arrays.copyOfRange(node.chars,index,node.chars.length))};
+        }
+        if(index <= node.left.length){
+            Node[] parts = split(node.left,index);
+            parts[1] = concat(parts[1],node.right);
+            return parts;
+        }
+        Node[] parts = split(node.right,index - node.left.length);
+        parts[0] = concat(node.left,parts[0]);
+        return parts;
+    }
+
+    /**
+     * 连接两棵树，合并连接处的小叶子
+     * 左树的最后一个叶子与右树的第一个叶子合计不超过MAX_LEAF时合并为一个叶子；
+     * 否则其中一个少于MIN_LEAF时平均分配为两个叶子(每个都不少于MIN_LEAF)。
+     * 时间复杂度：O(logn)
+     */
+    private static Node join(Node a,Node b){
+        if(a == null){
+            return b;
+        }
+        if(b == null){
+            return a;
+        }
+        Node last = a;
+        while(last.chars == null){
+            last = last.right;
+        }
+        Node first = b;
+        while(first.chars == null){
+            first = first.left;
+        }
+        int total = last.length + first.length;
+        if(total > MAX_LEAF && last.length >= MIN_LEAF && first.length >= MIN_LEAF){
+            return concat(a,b);
+        }
+        char[] chars = Arrays.copyOf(last.chars,total);
+        System.arraycopy(first.chars,0,chars,last.length,first.length);
+        Node middle;
+        if(total <= MAX_LEAF){
+            middle = new Node(chars);
+        }else{
+            int half = total >>> 1;
+            middle = new Node(new Node(Arrays.copyOfRange(chars,0,half)),new Node(Arrays.copyOfRange(chars,half,total)));
+        }
+        return concat(concat(withoutLast(a),middle),withoutFirst(b));
+    }
+
+    /**
+     * 去掉最后一个叶子，回溯时旋转保持平衡
+     * @return 剩余的树，只有一个叶子时为null
+     */
+    private static Node withoutLast(Node node){
+        if(node.chars != null){
+            return null;
+        }
+        Node right = withoutLast(node.right);
+        return right == null ? node.left : balance(node.left,right);
+    }
+
+    /**
+     * 去掉第一个叶子，回溯时旋转保持平衡
+     * @return 剩余的树，只有一个叶子时为null
+     */
+    private static Node withoutFirst(Node node){
+        if(node.chars != null){
+            return null;
+        }
+        Node left = withoutFirst(node.left);
+        return left == null ? node.right : balance(left,node.right);
+    }
+
+    /**
+     * 连接两棵树，不合并叶子
+     */
+    private static Node concat(Node a,Node b){
+        if(a == null){
+            return b;
+        }
+        if(b == null){
+            return a;
+        }
+        //高度较高的树沿边界向下连接
+        if(a.height > b.height + 1){
+            return balance(a.left,concat(a.right,b));
+        }
+        if(b.height > a.height + 1){
+            return balance(concat(a,b.left),b.right);
+        }
+        return new Node(a,b);
+    }
+
+    /**
+     * 创建结点，左右子树高度差为2时旋转
+     */
+    private static Node balance(Node left,Node right){
+        if(left.height > right.height + 1){
+            //左子树偏高：右旋，左子树的右子树偏高时先左旋
+            if(left.left.height >= left.right.height){
+                return new Node(left.left,new Node(left.right,right));
+            }
+            Node lr = left.right;
+            return new Node(new Node(left.left,lr.left),new Node(lr.right,right));
+        }
+        if(right.height > left.height + 1){
+            //右子树偏高：左旋，右子树的左子树偏高时先右旋
+            if(right.right.height >= right.left.height){
+                return new Node(new Node(left,right.left),right.right);
+            }
+            Node rl = right.left;
+            return new Node(new Node(left,rl.left),new Node(rl.right,right.right));
+        }
+        return new Node(left,right);
+    }
+
+    /**
+     * 中序复制全部叶子
+     * @return 复制后的写入位置
+     */
+    private static int copyTo(Node node,char[] dest,int pos){
+        if(node == null){
+            return pos;
+        }
+        if(node.chars != null){
+            System.arraycopy(node.chars,0,dest,pos,node.length);
+            return pos + node.length;
+        }
+        return copyTo(node.right,dest,copyTo(node.left,dest,pos));
+    }
+
+    private static int length(Node node){
+        return node == null ? 0 : node.length;
+    }
+
+    /**
+     * 结点：叶子结点存储字符块，非叶子结点存储左右子树
+     */
+    private static final class Node {
+
+        //叶子结点的字符块，非叶子结点为null
+        private final char[] chars;
+
+        private final Node left;
+
+        private final Node right;
+
+        //子树字符个数
+        private final int length;
+
+        //子树高度，叶子结点为0
+        private final int height;
+
+        Node(char[] chars){
+            this.chars = chars;
+            this.left = null;
+            this.right = null;
+            this.length = chars.length;
+            this.height = 0;
+        }
+
+        Node(Node left,Node right){
+            this.chars = null;
+            this.left = left;
+            this.right = right;
+            this.length = left.length + right.length;
+            this.height = Math.max(left.height,right.height) + 1;
+        }
+    }
+}
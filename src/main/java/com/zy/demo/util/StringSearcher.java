@@ -0,0 +1,646 @@
+package com.zy.demo.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * 预编译的字符串查找器
+ *
+ * 模式串预处理一次，可以反复在多个文本中查找。模式串与预处理表均为final字段，构建后不再修改，
+ * 查找状态都在局部变量中，可以被多个线程同时使用。
+ *
+ * 算法选择：
+ * 1、模式串长度不超过2：直接扫描，预处理开销为0。
+ * 2、模式串长度不小于3：Boyer-Moore-Horspool(BMH)。
+ *    每次对齐先比较窗口末尾字符，失配时按窗口末尾字符的坏字符表跳跃，平均跳跃接近模式串长度，
+ *    一般文本上亚线性。坏字符表按字符低8位建立256项，不同字符共用表项时取较小的跳跃距离，不会漏掉匹配。
+ * 3、BMH最坏时间复杂度O(mn)(如在"aaa...a"中查找"baa...a")。比较次数超过已扫描长度的线性上限时，
+ *    从当前位置切换为KMP继续查找，保证整体最坏时间复杂度O(m+n)。
+ *    KMP的部分匹配表记录模式串每个前缀的最长相等前后缀长度，文本指针不回退。
+ *
+ * 紧凑文本：
+ * 提供byte[]重载，文本按Latin-1编码(每个字节即一个0~255的字符)，直接在字节数组上查找，不需要先膨胀为char[]。
+ * 模式串含有大于255的字符时不可能出现在Latin-1文本中，直接返回未找到。
+ * 提供{@link ByteBuffer}重载，按绝对位置读取，直接在堆外缓冲区(如内存映射文件)上查找，不复制到堆内数组。
+ *
+ * 性能：
+ * 预处理：时间复杂度O(m)，空间复杂度O(m)。
+ * 查找：时间复杂度O(n+m)，空间复杂度O(1)(不含结果数组)。
+ *
+ * @author zy
+ */
+public final class StringSearcher {
+
+    //使用直接扫描的最大模式串长度
+    private static final int SCAN_MAX_LENGTH = 2;
+
+    //坏字符表大小
+    private static final int SHIFT_TABLE_SIZE = 256;
+
+    //模式串
+    private final char[] pattern;
+
+    //Latin-1编码的模式串，模式串含有大于255的字符时为null
+    private final byte[] latin1;
+
+    //KMP部分匹配表，直接扫描时为null
+    private final int[] prefix;
+
+    //BMH坏字符表，直接扫描时为null
+    private final int[] shift;
+
+    /**
+     * 预编译模式串
+     * @param pattern 模式串，非空
+     */
+    public StringSearcher(char[] pattern){
+        //入参校验
+        if(pattern == null || pattern.length == 0){
+            throw new IllegalArgumentException("Illegal pattern: empty!");
+        }
+        this.pattern = pattern.clone();
+        int m = pattern.length;
+        this.latin1 = toLatin1(pattern);
+        if(m <= SCAN_MAX_LENGTH){
+            this.prefix = null;
+            this.shift = null;
+            return;
+        }
+        //部分匹配表
+        this.prefix = new int[m];
+        for(int i = 1, k = 0 ; i < m ; i++){
+            while(k > 0 && pattern[i] != pattern[k]){
+                k = this.prefix[k-1];
+            }
+            if(pattern[i] == pattern[k]){
+                k++;
+            }
+            this.prefix[i] = k;
+        }
+        //坏字符表：窗口末尾字符为c时，窗口可以右移的距离
+        this.shift = new int[SHIFT_TABLE_SIZE];
+        Arrays.fill(this.shift,m);
+        for(int i = 0 ; i < m - 1 ; i++){
+            this.shift[pattern[i] & (SHIFT_TABLE_SIZE - 1)] = m - 1 - i;
+        }
+    }
+
+    /**
+     * 获取模式串长度
+     * @return 模式串长度
+     */
+    public int patternLength(){
+        return this.pattern.length;
+    }
+
+    /**
+     * 查找模式串在文本中第一次出现的位置
+     * @param text 文本
+     * @return 第一次出现的位置；不存在返回-1。
+     */
+    public int indexOf(char[] text){
+        return text == null ? -1 : this.indexOf(text,0,text.length);
+    }
+
+    /**
+     * 查找模式串在文本区间[from,to)中第一次出现的位置
+     * @param text 文本
+     * @param from 起始位置(包含)
+     * @param to 终止位置(不包含)
+     * @return 第一次出现的位置；不存在返回-1。
+     */
+    public int indexOf(char[] text,int from,int to){
+        checkRange(text,from,to);
+        return this.search(text,from,to,false,null);
+    }
+
+    /**
+     * 查找模式串在文本区间[from,to)中全部出现的位置
+     * 只查找一遍，位置收集到按2倍扩容的缓冲区，结束时按实际个数截断复制一次。
+     * @param text 文本
+     * @param from 起始位置(包含)
+     * @param to 终止位置(不包含)
+     * @param overlapping 是否允许匹配重叠。例如在"aaaa"中查找"aa"，允许重叠时为[0,1,2]，否则为[0,2]。
+     * @return 全部出现的位置(升序)；不存在返回空数组。
+     */
+    public int[] findAll(char[] text,int from,int to,boolean overlapping){
+        checkRange(text,from,to);
+        IntCollector collector = new IntCollector();
+        this.search(text,from,to,overlapping,collector);
+        return collector.toArray();
+    }
+
+    /**
+     * 按位置升序逐个处理模式串在文本区间[from,to)中出现的位置，不创建结果数组
+     * @param text 文本
+     * @param from 起始位置(包含)
+     * @param to 终止位置(不包含)
+     * @param overlapping 是否允许匹配重叠
+     * @param action 处理函数
+     * @return 出现次数
+     */
+    public int forEachMatch(char[] text,int from,int to,boolean overlapping,IntConsumer action){
+        checkRange(text,from,to);
+        if(action == null){
+            throw new IllegalArgumentException("Illegal action!");
+        }
+        return this.search(text,from,to,overlapping,action);
+    }
+
+    /**
+     * 查找模式串在Latin-1文本中第一次出现的位置
+     * @param text Latin-1文本
+     * @return 第一次出现的位置；不存在返回-1。
+     */
+    public int indexOf(byte[] text){
+        return text == null ? -1 : this.indexOf(text,0,text.length);
+    }
+
+    /**
+     * 查找模式串在Latin-1文本区间[from,to)中第一次出现的位置
+     * @param text Latin-1文本
+     * @param from 起始位置(包含)
+     * @param to 终止位置(不包含)
+     * @return 第一次出现的位置；不存在返回-1。
+     */
+    public int indexOf(byte[] text,int from,int to){
+        checkRange(text,from,to);
+        return this.search(text,from,to,false,null);
+    }
+
+    /**
+     * 查找模式串在Latin-1文本区间[from,to)中全部出现的位置
+     * 只查找一遍，位置收集到按2倍扩容的缓冲区，结束时按实际个数截断复制一次。
+     * @param text Latin-1文本
+     * @param from 起始位置(包含)
+     * @param to 终止位置(不包含)
+     * @param overlapping 是否允许匹配重叠
+     * @return 全部出现的位置(升序)；不存在返回空数组。
+     */
+    public int[] findAll(byte[] text,int from,int to,boolean overlapping){
+        checkRange(text,from,to);
+        IntCollector collector = new IntCollector();
+        this.search(text,from,to,overlapping,collector);
+        return collector.toArray();
+    }
+
+    /**
+     * 按位置升序逐个处理模式串在Latin-1文本区间[from,to)中出现的位置，不创建结果数组
+     * @param text Latin-1文本
+     * @param from 起始位置(包含)
+     * @param to 终止位置(不包含)
+     * @param overlapping 是否允许匹配重叠
+     * @param action 处理函数
+     * @return 出现次数
+     */
+    public int forEachMatch(byte[] text,int from,int to,boolean overlapping,IntConsumer action){
+        checkRange(text,from,to);
+        if(action == null){
+            throw new IllegalArgumentException("Illegal action!");
+        }
+        return this.search(text,from,to,overlapping,action);
+    }
+
+    /**
+     * 查找模式串在字节缓冲区区间[from,to)中第一次出现的位置，不改变缓冲区的position
+     * @param text 字节缓冲区，每个字节作为一个0~255的字符
+     * @param from 起始位置(包含，绝对位置)
+     * @param to 终止位置(不包含，绝对位置)
+     * @return 第一次出现的位置；不存在返回-1。
+     */
+    public int indexOf(ByteBuffer text,int from,int to){
+        checkRange(text,from,to);
+        return this.search(text,from,to,false,null);
+    }
+
+    /**
+     * 按位置升序逐个处理模式串在字节缓冲区区间[from,to)中出现的位置，不改变缓冲区的position
+     * @param text 字节缓冲区，每个字节作为一个0~255的字符
+     * @param from 起始位置(包含，绝对位置)
+     * @param to 终止位置(不包含，绝对位置)
+     * @param overlapping 是否允许匹配重叠
+     * @param action 处理函数
+     * @return 出现次数
+     */
+    public int forEachMatch(ByteBuffer text,int from,int to,boolean overlapping,IntConsumer action){
+        checkRange(text,from,to);
+        if(action == null){
+            throw new IllegalArgumentException("Illegal action!");
+        }
+        return this.search(text,from,to,overlapping,action);
+    }
+
+    /**
+     * 模式串按Latin-1编码
+     * @param pattern 模式串
+     * @return Latin-1编码的模式串；含有大于255的字符时返回null。
+     */
+    static byte[] toLatin1(char[] pattern){
+        byte[] result = new byte[pattern.length];
+        for(int i = 0 ; i < pattern.length ; i++){
+            if(pattern[i] > 0xFF){
+                return null;
+            }
+            result[i] = (byte) pattern[i];
+        }
+        return result;
+    }
+
+    /**
+     * 区间校验
+     */
+    private static void checkRange(char[] text,int from,int to){
+        if(text == null){
+            throw new IllegalArgumentException("Illegal text!");
+        }
+        if(from < 0 || to > text.length || from > to){
+            throw new IndexOutOfBoundsException("Illegal range: from=" + from + ", to=" + to + ", length=" + text.length);
+        }
+    }
+
+    /**
+     * 区间校验
+     */
+    private static void checkRange(byte[] text,int from,int to){
+        if(text == null){
+            throw new IllegalArgumentException("Illegal text!");
+        }
+        if(from < 0 || to > text.length || from > to){
+            throw new IndexOutOfBoundsException("Illegal range: from=" + from + ", to=" + to + ", length=" + text.length);
+        }
+    }
+
+    /**
+     * 区间校验
+     */
+    private static void checkRange(ByteBuffer text,int from,int to){
+        if(text == null){
+            throw new IllegalArgumentException("Illegal text!");
+        }
+        if(from < 0 || to > text.limit() || from > to){
+            throw new IndexOutOfBoundsException("Illegal range: from=" + from + ", to=" + to + ", limit=" + text.limit());
+        }
+    }
+
+    /**
+     * 查找
+     * @param action 处理函数；为null时只查找第一次出现的位置
+     * @return action为null时返回第一次出现的位置或-1；否则返回出现次数。
+     */
+    private int search(char[] text,int from,int to,boolean overlapping,IntConsumer action){
+        if(this.pattern.length <= SCAN_MAX_LENGTH){
+            return this.scan(text,from,to,overlapping,action);
+        }
+        return this.horspool(text,from,to,overlapping,action);
+    }
+
+    /**
+     * 直接扫描(模式串长度1~2)
+     */
+    private int scan(char[] text,int from,int to,boolean overlapping,IntConsumer action){
+        char first = this.pattern[0];
+        int m = this.pattern.length;
+        char second = m == 2 ? this.pattern[1] : first;
+        int last = to - m;
+        int count = 0;
+        for(int i = from ; i <= last ; i++){
+            if(text[i] == first && text[i + m - 1] == second){
+                if(action == null){
+                    return i;
+                }
+                action.accept(i);
+                count++;
+                if(!overlapping){
+                    i += m - 1;
+                }
+            }
+        }
+        return action == null ? -1 : count;
+    }
+
+    /**
+     * BMH查找，比较次数超过线性上限时切换为KMP
+     */
+    private int horspool(char[] text,int from,int to,boolean overlapping,IntConsumer action){
+        char[] p = this.pattern;
+        int[] s = this.shift;
+        int m = p.length;
+        int lastIndex = m - 1;
+        char lastChar = p[lastIndex];
+        int last = to - m;
+        int count = 0;
+        //比较次数
+        long compares = 0;
+        int i = from;
+        while(i <= last){
+            //比较次数超过线性上限，切换为KMP(之前开始的匹配均已处理)
+            if(compares > 2L * (i - from) + m){
+                int result = this.kmp(text,i,to,overlapping,action);
+                return action == null ? result : count + result;
+            }
+            char c = text[i + lastIndex];
+            compares++;
+            if(c == lastChar){
+                int j = 0;
+                while(j < lastIndex && text[i + j] == p[j]){
+                    j++;
+                }
+                compares += j + 1;
+                if(j == lastIndex){
+                    if(action == null){
+                        return i;
+                    }
+                    action.accept(i);
+                    count++;
+                    if(!overlapping){
+                        i += m;
+                        continue;
+                    }
+                }
+            }
+            i += s[c & (SHIFT_TABLE_SIZE - 1)];
+        }
+        return action == null ? -1 : count;
+    }
+
+    /**
+     * KMP查找
+     */
+    private int kmp(char[] text,int from,int to,boolean overlapping,IntConsumer action){
+        char[] p = this.pattern;
+        int[] pi = this.prefix;
+        int m = p.length;
+        int count = 0;
+        //已匹配的字符个数
+        int k = 0;
+        for(int i = from ; i < to ; i++){
+            char c = text[i];
+            while(k > 0 && c != p[k]){
+                k = pi[k-1];
+            }
+            if(c == p[k]){
+                k++;
+            }
+            if(k == m){
+                if(action == null){
+                    return i - m + 1;
+                }
+                action.accept(i - m + 1);
+                count++;
+                k = overlapping ? pi[m-1] : 0;
+            }
+        }
+        return action == null ? -1 : count;
+    }
+
+    /**
+     * 在Latin-1文本中查找
+     * @param action 处理函数；为null时只查找第一次出现的位置
+     * @return action为null时返回第一次出现的位置或-1；否则返回出现次数。
+     */
+    private int search(byte[] text,int from,int to,boolean overlapping,IntConsumer action){
+        if(this.latin1 == null){
+            return action == null ? -1 : 0;
+        }
+        if(this.pattern.length <= SCAN_MAX_LENGTH){
+            return this.scan(text,from,to,overlapping,action);
+        }
+        return this.horspool(text,from,to,overlapping,action);
+    }
+
+    /**
+     * 直接扫描Latin-1文本(模式串长度1~2)
+     */
+    private int scan(byte[] text,int from,int to,boolean overlapping,IntConsumer action){
+        byte first = this.latin1[0];
+        int m = this.latin1.length;
+        byte second = m == 2 ? this.latin1[1] : first;
+        int last = to - m;
+        int count = 0;
+        for(int i = from ; i <= last ; i++){
+            if(text[i] == first && text[i + m - 1] == second){
+                if(action == null){
+                    return i;
+                }
+                action.accept(i);
+                count++;
+                if(!overlapping){
+                    i += m - 1;
+                }
+            }
+        }
+        return action == null ? -1 : count;
+    }
+
+    /**
+     * BMH查找Latin-1文本，比较次数超过线性上限时切换为KMP
+     */
+    private int horspool(byte[] text,int from,int to,boolean overlapping,IntConsumer action){
+        byte[] p = this.latin1;
+        int[] s = this.shift;
+        int m = p.length;
+        int lastIndex = m - 1;
+        byte lastByte = p[lastIndex];
+        int last = to - m;
+        int count = 0;
+        //比较次数
+        long compares = 0;
+        int i = from;
+        while(i <= last){
+            //比较次数超过线性上限，切换为KMP(之前开始的匹配均已处理)
+            if(compares > 2L * (i - from) + m){
+                int result = this.kmp(text,i,to,overlapping,action);
+                return action == null ? result : count + result;
+            }
+            byte b = text[i + lastIndex];
+            compares++;
+            if(b == lastByte){
+                int j = 0;
+                while(j < lastIndex && text[i + j] == p[j]){
+                    j++;
+                }
+                compares += j + 1;
+                if(j == lastIndex){
+                    if(action == null){
+                        return i;
+                    }
+                    action.accept(i);
+                    count++;
+                    if(!overlapping){
+                        i += m;
+                        continue;
+                    }
+                }
+            }
+            i += s[b & (SHIFT_TABLE_SIZE - 1)];
+        }
+        return action == null ? -1 : count;
+    }
+
+    /**
+     * KMP查找Latin-1文本
+     */
+    private int kmp(byte[] text,int from,int to,boolean overlapping,IntConsumer action){
+        byte[] p = this.latin1;
+        int[] pi = this.prefix;
+        int m = p.length;
+        int count = 0;
+        //已匹配的字符个数
+        int k = 0;
+        for(int i = from ; i < to ; i++){
+            byte b = text[i];
+            while(k > 0 && b != p[k]){
+                k = pi[k-1];
+            }
+            if(b == p[k]){
+                k++;
+            }
+            if(k == m){
+                if(action == null){
+                    return i - m + 1;
+                }
+                action.accept(i - m + 1);
+                count++;
+                k = overlapping ? pi[m-1] : 0;
+            }
+        }
+        return action == null ? -1 : count;
+    }
+
+    /**
+     * 在字节缓冲区中查找
+     * @param action 处理函数；为null时只查找第一次出现的位置
+     * @return action为null时返回第一次出现的位置或-1；否则返回出现次数。
+     */
+    private int search(ByteBuffer text,int from,int to,boolean overlapping,IntConsumer action){
+        if(this.latin1 == null){
+            return action == null ? -1 : 0;
+        }
+        if(this.pattern.length <= SCAN_MAX_LENGTH){
+            return this.scan(text,from,to,overlapping,action);
+        }
+        return this.horspool(text,from,to,overlapping,action);
+    }
+
+    /**
+     * 直接扫描字节缓冲区(模式串长度1~2)
+     */
+    private int scan(ByteBuffer text,int from,int to,boolean overlapping,IntConsumer action){
+        byte first = this.latin1[0];
+        int m = this.latin1.length;
+        byte second = m == 2 ? this.latin1[1] : first;
+        int last = to - m;
+        int count = 0;
+        for(int i = from ; i <= last ; i++){
+            if(text.get(i) == first && text.get(i + m - 1) == second){
+                if(action == null){
+                    return i;
+                }
+                action.accept(i);
+                count++;
+                if(!overlapping){
+                    i += m - 1;
+                }
+            }
+        }
+        return action == null ? -1 : count;
+    }
+
+    /**
+     * BMH查找字节缓冲区，比较次数超过线性上限时切换为KMP
+     */
+    private int horspool(ByteBuffer text,int from,int to,boolean overlapping,IntConsumer action){
+        byte[] p = this.latin1;
+        int[] s = this.shift;
+        int m = p.length;
+        int lastIndex = m - 1;
+        byte lastByte = p[lastIndex];
+        int last = to - m;
+        int count = 0;
+        //比较次数
+        long compares = 0;
+        int i = from;
+        while(i <= last){
+            //比较次数超过线性上限，切换为KMP(之前开始的匹配均已处理)
+            if(compares > 2L * (i - from) + m){
+                int result = this.kmp(text,i,to,overlapping,action);
+                return action == null ? result : count + result;
+            }
+            byte b = text.get(i + lastIndex);
+            compares++;
+            if(b == lastByte){
+                int j = 0;
+                while(j < lastIndex && text.get(i + j) == p[j]){
+                    j++;
+                }
+                compares += j + 1;
+                if(j == lastIndex){
+                    if(action == null){
+                        return i;
+                    }
+                    action.accept(i);
+                    count++;
+                    if(!overlapping){
+                        i += m;
+                        continue;
+                    }
+                }
+            }
+            i += s[b & (SHIFT_TABLE_SIZE - 1)];
+        }
+        return action == null ? -1 : count;
+    }
+
+    /**
+     * KMP查找字节缓冲区
+     */
+    private int kmp(ByteBuffer text,int from,int to,boolean overlapping,IntConsumer action){
+        byte[] p = this.latin1;
+        int[] pi = this.prefix;
+        int m = p.length;
+        int count = 0;
+        //已匹配的字符个数
+        int k = 0;
+        for(int i = from ; i < to ; i++){
+            byte b = text.get(i);
+            while(k > 0 && b != p[k]){
+                k = pi[k-1];
+            }
+            if(b == p[k]){
+                k++;
+            }
+            if(k == m){
+                if(action == null){
+                    return i - m + 1;
+                }
+                action.accept(i - m + 1);
+                count++;
+                k = overlapping ? pi[m-1] : 0;
+            }
+        }
+        return action == null ? -1 : count;
+    }
+
+    /**
+     * 收集匹配位置：缓冲区按2倍扩容，结束时按实际个数截断复制一次
+     */
+    private static final class IntCollector implements IntConsumer {
+
+        private int[] values = new int[16];
+
+        private int size;
+
+        @Override
+        public void accept(int value) {
+            if(this.size == this.values.length){
+                this.values = Arrays.copyOf(this.values,this.size * 2);
+            }
+            this.values[this.size++] = value;
+        }
+
+        int[] toArray(){
+            return Arrays.copyOf(this.values,this.size);
+        }
+    }
+}
@@ -1,21 +1,45 @@
 package com.zy.demo.util;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 /**
  * 字符串
+ *
+ * 紧凑存储：
+ * 全部字符都不大于255(Latin-1)时使用字节数组存储，每个字符占1个字节，内存占用是字符数组的一半；
+ * 首次写入大于255的字符时才膨胀为字符数组，之后不再压缩。
+ * 查找、替换、翻转直接在字节数组上进行，不需要先转换为字符数组。
+ *
+ * 字符序列：
+ * 实现{@link CharSequence}，可以直接传给正则表达式等接受字符序列的接口，不需要先生成String。
+ * {@link #subSequence(int, int)}返回与原字符串共享数组的视图，时间复杂度O(1)；
+ * 共享数组的字符串(原字符串与视图)在首次修改前复制自己的区间(写时复制)，修改互不影响。
+ *
  * @author zy
  */
-public class StringUtil {
+public class StringUtil implements CharSequence {
 
-    //字符数组
+    //紧凑存储的字节数组(Latin-1)，膨胀后为null
+    private byte[] bytes;
+
+    //字符数组，紧凑存储时为null
     private char[] chars;
 
     //字符串长度
     private int size;
 
-    //字符数组初始化默认值
-    private static final char[] DEFAULT_CHARS = {};
+    //数组中的起始位置，只有视图不为0
+    private int offset;
+
+    //数组是否与其它字符串(原字符串或视图)共享，共享时修改前先复制
+    private boolean shared;
+
+    //字节数组初始化默认值
+    private static final byte[] DEFAULT_BYTES = {};
 
     //字符数组默认长度
     private static final int DEFAULT_SIZE = 10;
@@ -24,7 +48,7 @@ public class StringUtil {
      * 无参构造方法
      */
     public StringUtil(){
-        this.chars = DEFAULT_CHARS;
+        this.bytes = DEFAULT_BYTES;
     }
 
     /**
@@ -33,9 +57,9 @@ public class StringUtil {
      */
     public StringUtil(int capacity){
         if(capacity == 0){
-            this.chars = DEFAULT_CHARS;
+            this.bytes = DEFAULT_BYTES;
         }else if(capacity > 0){
-            this.chars = new char[capacity];
+            this.bytes = new byte[capacity];
         }else{
             throw new IllegalArgumentException("Illegal capacity!");
         }
@@ -46,10 +70,25 @@ public class StringUtil {
      * @param chars 初始字符串
      */
     public StringUtil(char[] chars){
-        this.chars = DEFAULT_CHARS;
+        this.bytes = DEFAULT_BYTES;
         this.addLast(chars);
     }
 
+    /**
+     * 视图构造方法：与原字符串共享数组
+     * @param source 原字符串
+     * @param start 起始位置(包含)
+     * @param end 终止位置(不包含)
+     */
+    private StringUtil(StringUtil source,int start,int end){
+        this.bytes = source.bytes;
+        this.chars = source.chars;
+        this.offset = source.offset + start;
+        this.size = end - start;
+        this.shared = true;
+        source.shared = true;
+    }
+
     /**
      * 获取字符串的长度
      * @return 字符数组的元素个数
@@ -58,6 +97,78 @@ public class StringUtil {
         return this.size;
     }
 
+    /**
+     * 获取字符串的长度
+     * @return 字符个数
+     */
+    @Override
+    public int length() {
+        return this.size;
+    }
+
+    /**
+     * 获取指定位置的字符
+     * 时间复杂度：O(1)
+     * @param index 位置
+     * @return 字符
+     */
+    @Override
+    public char charAt(int index) {
+        if(index < 0 || index >= this.size){
+            throw new IndexOutOfBoundsException("Illegal index=" + index);
+        }
+        if(this.bytes != null){
+            return (char) (this.bytes[this.offset + index] & 0xFF);
+        }
+        return this.chars[this.offset + index];
+    }
+
+    /**
+     * 获取子串视图，与原字符串共享数组
+     * 时间复杂度：O(1)
+     * 空间复杂度：O(1)
+     * @param start 起始位置(包含)
+     * @param end 终止位置(不包含)
+     * @return 子串视图
+     */
+    @Override
+    public StringUtil subSequence(int start,int end) {
+        if(start < 0 || end > this.size || start > end){
+            throw new IndexOutOfBoundsException("Illegal range: start=" + start + ", end=" + end);
+        }
+        return new StringUtil(this,start,end);
+    }
+
+    /**
+     * 写出到字符流，不生成String
+     * 时间复杂度：O(n)
+     * 空间复杂度：O(1)  --紧凑存储时使用固定大小的缓冲区转换
+     * @param writer 字符流
+     * @throws IOException 写出失败
+     */
+    public void writeTo(Writer writer) throws IOException {
+        if(this.bytes == null){
+            writer.write(this.chars,this.offset,this.size);
+            return;
+        }
+        char[] buffer = new char[Math.min(this.size,1024)];
+        for(int from = 0 ; from < this.size ; from += buffer.length){
+            int len = Math.min(buffer.length,this.size - from);
+            for(int i = 0 ; i < len ; i++){
+                buffer[i] = (char) (this.bytes[this.offset + from + i] & 0xFF);
+            }
+            writer.write(buffer,0,len);
+        }
+    }
+
+    /**
+     * 判断是否为紧凑存储
+     * @return 字节数组存储返回true；否则返回false。
+     */
+    public boolean isCompact(){
+        return this.bytes != null;
+    }
+
     /**
      * 打印字符串
      */
@@ -65,24 +176,123 @@ public class StringUtil {
         if(this.size == 0){
             return "";
         }
-        StringBuilder sb = new StringBuilder();
-        for(int i = 0 ; i < this.size ; i++){
-            sb.append(chars[i]);
+        if(this.bytes != null){
+            return new String(this.bytes,this.offset,this.size,StandardCharsets.ISO_8859_1);
         }
-        return sb.toString();
+        return new String(this.chars,this.offset,this.size);
     }
 
     /**
-     * 字符数组扩容
+     * 数组扩容(字节数组或字符数组)
      * 时间复杂度：可能是O(n)  --底层是JVM本地方法实现的。
      * 空间复杂度：O(n)
      */
     private void expand(int newLen){
         if(newLen <= DEFAULT_SIZE){
-            this.chars = Arrays.copyOf(this.chars,DEFAULT_SIZE);
+            newLen = DEFAULT_SIZE;
         }else{
             newLen = newLen * 3/2;
-            this.chars = Arrays.copyOf(this.chars, newLen);
+        }
+        if(this.bytes != null){
+            this.bytes = Arrays.copyOf(this.bytes,newLen);
+        }else{
+            this.chars = Arrays.copyOf(this.chars,newLen);
+        }
+    }
+
+    /**
+     * 写时复制：数组与其它字符串共享时，复制自己的区间，之后可以原地修改
+     * 时间复杂度：共享时O(n)；否则O(1)
+     */
+    private void unshare(){
+        if(!this.shared){
+            return;
+        }
+        if(this.bytes != null){
+            this.bytes = Arrays.copyOfRange(this.bytes,this.offset,this.offset + this.size);
+        }else{
+            this.chars = Arrays.copyOfRange(this.chars,this.offset,this.offset + this.size);
+        }
+        this.offset = 0;
+        this.shared = false;
+    }
+
+    /**
+     * 当前数组容量
+     */
+    private int capacity(){
+        return this.bytes != null ? this.bytes.length : this.chars.length;
+    }
+
+    /**
+     * 字节数组膨胀为字符数组
+     * 时间复杂度：O(n)
+     * 空间复杂度：O(n)
+     * @param minCapacity 字符数组最小容量
+     */
+    private void inflate(int minCapacity){
+        char[] result = new char[Math.max(this.bytes.length,minCapacity)];
+        for(int i = 0 ; i < this.size ; i++){
+            result[i] = (char) (this.bytes[i] & 0xFF);
+        }
+        this.chars = result;
+        this.bytes = null;
+    }
+
+    /**
+     * 替换全部内容：当前为紧凑存储且新内容全部为Latin-1字符时保持字节数组，否则使用字符数组；已膨胀的字符串不再压缩
+     * @param chars 新内容，长度即字符串长度
+     */
+    private void setChars(char[] chars){
+        byte[] compact = this.bytes != null ? StringSearcher.toLatin1(chars) : null;
+        if(compact != null){
+            this.bytes = compact;
+            this.chars = null;
+        }else{
+            this.chars = chars;
+            this.bytes = null;
+        }
+        this.size = chars.length;
+        this.offset = 0;
+        this.shared = false;
+    }
+
+    /**
+     * 当前内容的字符数组(紧凑存储时为副本)，调用方保证已经{@link #unshare()}
+     */
+    private char[] charArray(){
+        if(this.bytes == null){
+            return this.chars;
+        }
+        char[] result = new char[this.size];
+        for(int i = 0 ; i < this.size ; i++){
+            result[i] = (char) (this.bytes[i] & 0xFF);
+        }
+        return result;
+    }
+
+    /**
+     * 判断字符数组是否全部为Latin-1字符
+     */
+    private static boolean isLatin1(char[] chars){
+        for(char c : chars){
+            if(c > 0xFF){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 写入字符数组：紧凑存储时逐个压缩为字节(调用方保证全部为Latin-1字符)
+     */
+    private void write(char[] src,int index){
+        if(this.bytes != null){
+            for(int i = 0 ; i < src.length ; i++){
+                this.bytes[index + i] = (byte) src[i];
+            }
+        }else{
+            System.arraycopy(src,0,this.chars,index,src.length);
         }
     }
 
@@ -98,24 +308,26 @@ public class StringUtil {
         if(chars == null || chars.length == 0){
             return this;
         }
+        this.unshare();
         //连接后新字符串长度
         int newLen = chars.length + this.size;
-        //如果连接后的字符串长度大于字符数组长度，则扩容
-        if(newLen > this.chars.length){
-            this.expand(newLen);
+        //首次写入非Latin-1字符时膨胀为字符数组
+        if(this.bytes != null && !isLatin1(chars)){
+            this.inflate(newLen);
         }
-        //连接字符串
-        for(int i = 0 ; i < chars.length ; i++){
-            this.chars[this.size++] = chars[i];
+        //如果连接后的字符串长度大于数组长度，则扩容
+        if(newLen > this.capacity()){
+            this.expand(newLen);
         }
-        //添加完成后重新初始化数组
-        this.chars = Arrays.copyOf(this.chars,this.size);
+        //连接字符串(保留扩容后的剩余容量，连续追加时均摊O(1)扩容)
+        this.write(chars,this.size);
+        this.size = newLen;
         return this;
     }
 
     /**
      * 在指定索引处添加指定字符串
-     * 时间复杂度：如不考虑数组扩容则是O(n)  --数组中间添加元素需要移动其它元素的位置。
+     * 时间复杂度：如不考虑数组扩容则是O(n)  --数组中间添加元素需要移动其它元素的位置，频繁插入时使用{@link Rope}。
      * 空间复杂度：如不考虑扩容则是O(1)
      * @param index 索引。规定起始索引为0。
      * @param chars 要添加的字符数组
@@ -134,32 +346,43 @@ public class StringUtil {
         if(chars.length == 0){
             return this;
         }
+        this.unshare();
         //获取添加的子字符串长度
         int addLen = chars.length;
         //获取添加后的主字符串长度
         int newLen = this.size + addLen;
+        //首次写入非Latin-1字符时膨胀为字符数组
+        if(this.bytes != null && !isLatin1(chars)){
+            this.inflate(newLen);
+        }
         //判断是否扩容
-        if(newLen > this.chars.length){
+        if(newLen > this.capacity()){
             this.expand(newLen);
         }
         //提前把原数组指定索引处之后的元素向后移动，为添加的字符串腾出空间。
-        for(int i = this.size-1 ; i >= index ; i--){
-            this.chars[i+addLen] = this.chars[i];
-        }
+        Object value = this.bytes != null ? this.bytes : this.chars;
+        System.arraycopy(value,index,value,index + addLen,this.size - index);
         //添加指定字符串
-        for(int i = 0 ; i < addLen ; i++){
-            this.chars[index+i] = chars[i];
-            this.size++;
-        }
-        //添加完成后重新初始化数组
-        this.chars = Arrays.copyOf(this.chars,this.size);
+        this.write(chars,index);
+        this.size = newLen;
         return this;
     }
 
+    /**
+     * 预编译模式串，返回可以反复使用的字符串查找器
+     * 时间复杂度：O(m)
+     * 空间复杂度：O(m)
+     * @param pattern 模式串
+     * @return 字符串查找器
+     */
+    public static StringSearcher compile(char[] pattern){
+        return new StringSearcher(pattern);
+    }
+
     /**
      * 判断原字符串中是否包含指定字符串(字符串查找)
-     * 时间复杂度：O(mn) --两层嵌套for循环，其中第二层for循环遍历指定字符串的长度m。
-     * 空间复杂度：O(n)  --创建Integer数组存储结果，如果原字符串中的字符不是完全一样的，则此复杂度很小，可以看作O(1)。
+     * 时间复杂度：O(m+n) --预编译的字符串查找器，找到第一个匹配即返回。
+     * 空间复杂度：O(m)  --模式串预处理表
      * @param chars 指定字符串
      * @return 如果存在返回true；否则返回false。
      */
@@ -170,65 +393,25 @@ public class StringUtil {
         if(chars.length > this.size){
             return false;
         }
-        int[] ints = this.getIndexes(chars);
-        if(ints != null && ints.length > 0){
-            return true;
-        }
-        return false;
-    }
-
-    /**
-     * 判断原字符串中是否包含指定字符串，并返回出现的索引列表。
-     * 时间复杂度：O(mn) --两层嵌套for循环，其中第二层for循环遍历指定字符串的长度m。
-     * 空间复杂度：O(n)  --创建Integer数组存储结果，如果原字符串中的字符不是完全一样的，则此复杂度很小，可以看作O(1)。
-     * @param chars 指定字符串
-     * @return 如果存在返回指定字符串首字符在原字符串出现的位置；否则返回空数组。
-     */
-    private int[] getIndexes(char[] chars){
-        //初始化数组记录结果
-        int[] ints = {};
-        //结果数组索引
-        int index = 0;
-        //结果数组长度
-        int len = 0 ;
-        //遍历原字符串
-        for(int i = 0 ; i < this.size ; i++){
-            //如果在原字符串中查找到指定字符串的首字符
-            if(this.chars[i] == chars[0]){
-                //首字符后的元素个数不足时，直接退出。
-                if(this.size - i < chars.length){
-                    break;
-                }
-                //计数器
-                int count = 0;
-                //遍历指定字符串
-                for(int j = 0 ; j < chars.length ; j++){
-                    //逐个比较两个字符串对应位置的字符
-                    if(this.chars[i+j] == chars[j]){
-                        count++;
-                    }
-                }
-                //如果字符相等个数等于指定字符串的长度，则证明原字符串包含指定字符串。
-                if(count == chars.length){
-                    //索引大于数组长度，则扩容
-                    if(index >= ints.length){
-                        int newLen = ints.length == 0 ? 10 : ints.length * 3/2;
-                        ints = Arrays.copyOf(ints,newLen);
-                    }
-                    ints[index++] = i;
-                    len++;
-                }
-            }
+        StringSearcher searcher = compile(chars);
+        if(this.bytes != null){
+            return searcher.indexOf(this.bytes,this.offset,this.offset + this.size) >= 0;
         }
-        //重新初始化数组
-        ints = Arrays.copyOf(ints,len);
-        return ints;
+        return searcher.indexOf(this.chars,this.offset,this.offset + this.size) >= 0;
     }
 
     /**
      * 将原字符串中指定字符串替换为新的字符串(字符串删除)
-     * 时间复杂度：如果不考虑扩容是O(mn)
-     * 空间复杂度：O(n)  --创建数组存储结果
+     * 从左到右查找不重叠的匹配，例如"aaa"中的"aa"替换为"b"结果为"ba"。
+     *
+     * 优化思路：
+     * 1、预编译的字符串查找器一次找出全部匹配位置。
+     * 2、新旧字符串等长时原地覆盖，不分配新数组。
+     * 3、否则按替换后的长度一次分配结果数组，未匹配片段与新字符串使用System.arraycopy整段复制，
+     *    避免每次匹配都移动后续元素并重新分配数组。
+     *
+     * 时间复杂度：O(m+n+k) --k为替换后的长度
+     * 空间复杂度：O(n+k)  --匹配位置列表与结果数组
      * @param newChars 要替换的新字符串
      * @param oldChars 要替换的旧字符串
      * @return 替换成功返回替换后的新字符串；否则返回原字符串。
@@ -246,175 +429,118 @@ public class StringUtil {
         if(newChars == null){
             return this;
         }
-        //查询要替换的旧字符串是否存在，并获取首字符索引列表。
-        int[] ints = this.getIndexes(oldChars);
+        this.unshare();
+        StringSearcher searcher = compile(oldChars);
+        //紧凑存储时新字符串的Latin-1编码，存在大于255的字符时为null
+        byte[] newBytes = this.bytes != null ? StringSearcher.toLatin1(newChars) : null;
+        //新旧字符串等长：原地覆盖
+        if(oldChars.length == newChars.length){
+            if(this.bytes == null){
+                char[] target = this.chars;
+                searcher.forEachMatch(target,0,this.size,false,
+                        index -> System.arraycopy(newChars,0,target,index,newChars.length));
+                return this;
+            }
+            if(newBytes != null){
+                byte[] target = this.bytes;
+                searcher.forEachMatch(target,0,this.size,false,
+                        index -> System.arraycopy(newBytes,0,target,index,newBytes.length));
+                return this;
+            }
+        }
+        //查询要替换的旧字符串是否存在，并获取不重叠的首字符索引列表。
+        int[] ints = this.bytes != null ? searcher.findAll(this.bytes,0,this.size,false)
+                : searcher.findAll(this.chars,0,this.size,false);
         //未匹配到指定字符串直接返回原字符串。
-        if(ints == null || ints.length == 0){
+        if(ints.length == 0){
             return this;
         }
-        //如果要替换的新字符串是空数组，则为删除操作
-        if(newChars.length == 0){
-            //遍历存储首字符索引的列表
-            for(int i = 0 ; i < ints.length ; i++){
-                //删除处后元素索引
-                int afterIndex = 0;
-                //先把删除处后的元素向数组头移动
-                for(int j = ints[i] ; j < this.size ; j++){
-                    //数组越界校验
-                    afterIndex = j + oldChars.length;
-                    if(afterIndex >= this.size){
-                        break;
-                    }
-                    //删除操作索引向前移动
-                    this.chars[j] = this.chars[afterIndex];
-                }
-                //数组长度变更(匹配1次删除oldChars个元素)
-                this.size = this.size - oldChars.length;
-                //重新初始化数组
-                this.chars = Arrays.copyOf(this.chars,this.size);
-                //删除成功后同时移动索引列表剩余索引
-                for(int k = i+1 ; k < ints.length ; k++){
-                    ints[k] = ints[k] - oldChars.length;
-                }
-            }
+        //新字符串不能紧凑存储：膨胀为字符数组，匹配位置不变
+        if(this.bytes != null && newBytes == null){
+            this.inflate(this.size);
+        }
+        //替换后的长度
+        long newLen = this.size + (long) ints.length * (newChars.length - oldChars.length);
+        if(newLen > Integer.MAX_VALUE - 8){
+            throw new OutOfMemoryError("Replaced length too large: " + newLen);
+        }
+        if(this.bytes != null){
+            byte[] result = new byte[(int) newLen];
+            this.splice(this.bytes,ints,oldChars.length,newBytes,newBytes.length,result);
+            this.bytes = result;
         }else{
-            //否则是字符串替换操作，有三种情况：
-            //1、替换+删除
-            if(oldChars.length > newChars.length){
-                //删除元素个数
-                int delNum = oldChars.length - newChars.length;
-                //遍历首字符索引列表
-                for(int i = 0 ; i < ints.length ; i++){
-                    //起始索引
-                    int index = ints[i];
-                    //遍历要替换的字符串
-                    for(int j = 0 ; j < newChars.length ; j++){
-                        //替换
-                        this.chars[index++] = newChars[j];
-                    }
-                    //删除元素前先移动其它元素索引
-                    for(int k = index ; k < this.size ; k++){
-                        //数组越界校验
-                        if(k+delNum >= this.size){
-                            break;
-                        }
-                        this.chars[k] = this.chars[k+delNum];
-                    }
-                    //数组长度变更
-                    this.size = this.size - delNum;
-                    //删除后重新初始化数组
-                    this.chars = Arrays.copyOf(this.chars,this.size);
-                    //删除成功后同时移动索引列表剩余索引
-                    for(int m = i+1 ; m < ints.length ; m++){
-                        ints[m] = ints[m] - delNum;
-                    }
-                }
-            }else if(oldChars.length < newChars.length){
-                //2、替换+添加
-                //添加元素个数
-                int addNum = newChars.length - oldChars.length;
-                //遍历要替换的索引列表
-                for(int i = 0 ; i < ints.length ; i++){
-                    //起始索引
-                    int index = ints[i];
-                    //添加的起始索引
-                    int jIndex = 0;
-                    //替换
-                    for(int j = 0 ; j < oldChars.length ; j++){
-                        this.chars[index++] = newChars[j];
-                        jIndex = j;
-                    }
-                    //替换完成后的下一个索引为添加的起始索引
-                    jIndex++;
-                    //判断是否需要扩容
-                    if(this.size + addNum > this.chars.length){
-                        this.expand(this.size+addNum);
-                    }
-                    //添加前移动其它元素位置
-                    for(int k = this.size-1 ; k >= index ; k--){
-                        this.chars[k+addNum] = this.chars[k];
-                    }
-                    //添加
-                    for(int j = jIndex ; j < newChars.length ; j++){
-                        this.chars[index++] = newChars[j];
-                    }
-                    //数组长度变更
-                    this.size = this.size + addNum;
-                    //添加成功后重新初始化数组
-                    this.chars = Arrays.copyOf(this.chars,this.size);
-                    //索引列表位置移动
-                    for(int m = i+1 ; m < ints.length ; m++){
-                        ints[m] = ints[m] + addNum;
-                    }
-                }
-            }else{
-                //3、完全替换
-                //遍历存储首字符索引的列表
-                for(int i = 0 ; i < ints.length ; i++){
-                    //起始索引
-                    int index = ints[i];
-                    //逐个替换字符
-                    for(int j = 0 ; j < newChars.length ; j++){
-                        this.chars[index++] = newChars[j];
-                    }
-                }
-            }
+            char[] result = new char[(int) newLen];
+            this.splice(this.chars,ints,oldChars.length,newChars,newChars.length,result);
+            this.chars = result;
+        }
+        this.size = (int) newLen;
+        return this;
+    }
+
+    /**
+     * 按匹配位置整段复制未匹配片段与新字符串，字节数组与字符数组共用
+     * @param value 原数组
+     * @param ints 不重叠的匹配位置
+     * @param oldLen 旧字符串长度
+     * @param replacement 与原数组同类型的新字符串
+     * @param newLen 新字符串长度
+     * @param result 与原数组同类型的结果数组
+     */
+    private void splice(Object value,int[] ints,int oldLen,Object replacement,int newLen,Object result){
+        //结果数组写入位置
+        int pos = 0;
+        //原字符串未匹配片段起始位置
+        int segment = 0;
+        for(int i = 0 ; i < ints.length ; i++){
+            //复制匹配前的片段
+            int len = ints[i] - segment;
+            System.arraycopy(value,segment,result,pos,len);
+            pos += len;
+            //复制新字符串
+            System.arraycopy(replacement,0,result,pos,newLen);
+            pos += newLen;
+            segment = ints[i] + oldLen;
+        }
+        //复制最后一个匹配后的片段
+        System.arraycopy(value,segment,result,pos,this.size - segment);
+    }
+
+    /**
+     * 使用多模式串替换器一次替换全部模式串(最左最长，不重叠)
+     * 时间复杂度：O(n+z) --扫描一次原字符串，z为匹配次数
+     * 空间复杂度：O(n)  --按替换后的长度分配一次结果数组
+     * @param replacer 多模式串替换器
+     * @return 替换后的新字符串
+     */
+    public StringUtil replace(MultiReplacer replacer){
+        if(replacer == null || this.size == 0){
+            return this;
+        }
+        this.unshare();
+        //紧凑存储且替换串均为Latin-1：直接替换字节数组
+        if(this.bytes != null && replacer.isLatin1()){
+            this.bytes = replacer.replace(this.bytes,0,this.size);
+            this.size = this.bytes.length;
+            return this;
         }
+        this.setChars(replacer.replace(this.charArray(),0,this.size));
         return this;
     }
 
     /**
      * 指定两个字符串，查找它们的最大公共字符串。
-     * 时间复杂度：O(m²n)  --三层嵌套for循环，原字符串的长度是n，指定字符串的长度是m
-     * 空间复杂度：O(n)  --新建数组对象存储结果
-     * @return 最大公共字符串
+     * 以字符串B构建后缀数组索引，字符串A作为候选字符串查询，详见{@link SuffixArrayIndex#longestCommonSubstring(CharSequence)}。
+     * 同一个字符串B需要反复查询时，直接保留{@link SuffixArrayIndex}，只构建一次。
+     * 时间复杂度：O(n+mlogn)  --构建O(n)，查询O(mlogn)
+     * 空间复杂度：O(n)
+     * @return 最大公共字符串，多个等长结果时返回在字符串A中最先出现的一个
      */
     public StringUtil findMaxCommon(char[] charsA,char[] charsB){
         if(charsA == null || charsA.length == 0 || charsB == null || charsB.length == 0){
             return null;
         }
         //最大公共字符串
-        this.chars = null;
-        //最大公共字符串元素个数
-        int maxNum = 0;
-        //遍历字符串A
-        for(int i = 0 ; i < charsA.length ; i++){
-            //遍历字符串B
-            for(int j = 0 ; j < charsB.length ; j++){
-                //如果字符串A当前字符等于字符串B的首个字符
-                if(charsA[i] == charsB[j]){
-                    //获取字符串A的当前索引
-                    int index = i;
-                    //计数器
-                    int count = 0;
-                    //缓存
-                    char[] tmp = new char[Math.min(charsA.length,charsB.length)];
-                    //遍历字符串B
-                    for(int k = j ; k < charsB.length ; k++){
-                        if(index >= charsA.length){
-                            break;
-                        }
-                        //逐个比较两个字符串对应位置的字符
-                        if(charsA[index++] == charsB[k]){
-                            //记录结果
-                            tmp[count++] = charsB[k];
-                        }else{
-                            break;
-                        }
-                    }
-                    //赋值
-                    if(count > maxNum){
-                        maxNum = count;
-                        this.chars = tmp;
-                    }
-                }
-            }
-        }
-        //重新初始化结果数组
-        if(maxNum > 0){
-            this.size = maxNum;
-            this.chars = Arrays.copyOf(this.chars,this.size);
-        }
+        this.setChars(new SuffixArrayIndex(charsB).longestCommonSubstring(CharBuffer.wrap(charsA)).toCharArray());
         return this;
     }
 
@@ -428,6 +554,16 @@ public class StringUtil {
         if(this.size == 0){
             return this;
         }
+        this.unshare();
+        //紧凑存储：直接交换字节
+        if(this.bytes != null){
+            for(int i = 0 ; i < this.size/2 ; i++){
+                byte tmp = this.bytes[i];
+                this.bytes[i] = this.bytes[this.size-i-1];
+                this.bytes[this.size-i-1] = tmp;
+            }
+            return this;
+        }
         //遍历字符串
         for(int i = 0 ; i < this.size/2 ; i++){
             //缓存当前字符
@@ -0,0 +1,532 @@
+package com.zy.demo.util;
+
+import java.util.Arrays;
+
+/**
+ * 后缀数组索引
+ *
+ * 后缀数组sa按字典序记录文本全部后缀的起始位置，lcp[i]为后缀sa[i-1]与sa[i]的最长公共前缀长度。
+ * 文本构建一次后可以反复查询。文本在构建时复制，sa、rank、lcp等数组均为final字段且构建后不再修改，
+ * 可以被多个线程同时查询，查询不分配内存。
+ *
+ * 原理：
+ * 1、SA-IS(诱导排序)构建后缀数组：
+ *    按后缀与其右侧后缀的大小关系把位置分为S型、L型，左侧为L型的S型位置称为LMS位置。
+ *    先诱导排序LMS子串并命名，名称不唯一时递归求解由名称组成的缩减文本；再由有序的LMS后缀诱导出全部后缀的顺序。
+ *    每层递归规模不超过一半，时间复杂度O(n)。
+ * 2、Kasai算法构建LCP数组：按文本顺序处理后缀，文本位置右移1时LCP最多减1，时间复杂度O(n)。
+ * 3、子串查询：以模式串开头的后缀在后缀数组中连续，二分查找区间上下界，时间复杂度O(mlogn)。
+ * 4、最长重复子串：LCP数组的最大值。
+ * 5、最大公共子字符串：对候选字符串的每个起始位置求在文本中出现的最长前缀(匹配统计量)。
+ *    以该前缀开头的后缀在后缀数组中是一个区间，追加候选字符串的下一个字符时在区间内二分查找，区间缩小；
+ *    去掉首字符时，由后缀数组的逆(rank)定位剩余前缀所在的后缀，再在LCP最小值线段树上查找LCP小于前缀长度的左右边界，区间扩大。
+ *    匹配长度每次追加加1、每次去掉首字符减1，总步数O(m)。
+ *
+ * 性能：
+ * 构建：时间复杂度O(n)，空间复杂度O(n)(后缀数组、rank、LCP与线段树共约7n个int)。
+ * 查询：时间复杂度O(mlogn)，空间复杂度O(1)，不分配内存(返回的字符串除外)。
+ *
+ * @author zy
+ */
+public final class SuffixArrayIndex {
+
+    //文本
+    private final char[] text;
+
+    //后缀数组
+    private final int[] sa;
+
+    //后缀数组的逆：rank[sa[i]] = i
+    private final int[] rank;
+
+    //lcp[i]为后缀sa[i-1]与sa[i]的最长公共前缀长度，lcp[0]=0
+    private final int[] lcp;
+
+    //LCP最小值线段树：叶子从下标leaves开始，超出文本长度的叶子为-1
+    private final int[] lcpTree;
+
+    //线段树叶子个数(2的幂)
+    private final int leaves;
+
+    /**
+     * 构建文本的后缀数组索引
+     * @param text 文本
+     */
+    public SuffixArrayIndex(CharSequence text){
+        this(text == null ? new char[0] : text.toString().toCharArray(),false);
+    }
+
+    /**
+     * 构建字符数组的后缀数组索引
+     * @param text 文本，构建时复制
+     */
+    public SuffixArrayIndex(char[] text){
+        this(text == null ? new char[0] : text,true);
+    }
+
+    /**
+     * 构建后缀数组索引
+     * @param text 文本
+     * @param copy 是否需要复制文本
+     */
+    private SuffixArrayIndex(char[] text,boolean copy){
+        this.text = copy ? text.clone() : text;
+        int n = this.text.length;
+        //字符重新编号为1~σ，末尾哨兵为0
+        int[] s = new int[n + 1];
+        int sigma = ranks(this.text,s);
+        //去掉哨兵后缀
+        this.sa = Arrays.copyOfRange(suffixArray(s,sigma + 1),1,n + 1);
+        this.rank = new int[n];
+        for(int i = 0 ; i < n ; i++){
+            this.rank[this.sa[i]] = i;
+        }
+        this.lcp = kasai(s,this.sa,this.rank);
+        //LCP最小值线段树
+        int size = 1;
+        while(size < n){
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.lcpTree = new int[2 * size];
+        Arrays.fill(this.lcpTree,size,2 * size,-1);
+        System.arraycopy(this.lcp,0,this.lcpTree,size,n);
+        for(int node = size - 1 ; node >= 1 ; node--){
+            this.lcpTree[node] = Math.min(this.lcpTree[2 * node],this.lcpTree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * 获取文本长度
+     * @return 文本长度
+     */
+    public int length(){
+        return this.text.length;
+    }
+
+    /**
+     * 判断文本是否包含模式串
+     * 时间复杂度：O(mlogn)
+     * @param pattern 模式串
+     * @return 包含返回true；否则返回false。
+     */
+    public boolean contains(CharSequence pattern){
+        if(pattern == null){
+            return false;
+        }
+        if(pattern.length() == 0){
+            return true;
+        }
+        int low = this.lowerBound(pattern);
+        return low < this.sa.length && this.compare(this.sa[low],pattern) == 0;
+    }
+
+    /**
+     * 统计模式串在文本中出现的次数(允许重叠)
+     * 时间复杂度：O(mlogn)
+     * @param pattern 模式串
+     * @return 出现次数
+     */
+    public int count(CharSequence pattern){
+        if(pattern == null || pattern.length() == 0){
+            return 0;
+        }
+        return this.upperBound(pattern) - this.lowerBound(pattern);
+    }
+
+    /**
+     * 查找最长重复子串(出现至少2次，允许重叠)
+     * 时间复杂度：O(n)
+     * @return 最长重复子串，多个等长结果时返回最先出现的一个；不存在返回空字符串。
+     */
+    public String longestRepeatedSubstring(){
+        int maxLen = 0;
+        for(int i = 1 ; i < this.lcp.length ; i++){
+            maxLen = Math.max(maxLen,this.lcp[i]);
+        }
+        if(maxLen == 0){
+            return "";
+        }
+        int start = Integer.MAX_VALUE;
+        for(int i = 1 ; i < this.lcp.length ; i++){
+            if(this.lcp[i] == maxLen){
+                start = Math.min(start,Math.min(this.sa[i-1],this.sa[i]));
+            }
+        }
+        return new String(this.text,start,maxLen);
+    }
+
+    /**
+     * 求候选字符串与文本的最大公共子字符串，以字符串2构建索引、字符串1作为候选字符串查询时，
+     * 结果与{@link com.zy.demo.algorithm.DynamicProgramming#getCommonStr(String, String)}一致。
+     * 时间复杂度：O(mlogn)
+     * 空间复杂度：O(1)
+     * @param candidate 候选字符串
+     * @return 最大公共字符串，多个等长结果时返回在候选字符串中最先出现的一个
+     */
+    public String longestCommonSubstring(CharSequence candidate){
+        int n = this.text.length;
+        if(candidate == null || candidate.length() == 0 || n == 0){
+            return "";
+        }
+        int m = candidate.length();
+        //当前匹配candidate[j,j+matched)，以其开头的后缀区间为[low,high)
+        int low = 0;
+        int high = n;
+        int matched = 0;
+        //最大匹配长度与起始位置
+        int maxLen = 0;
+        int start = 0;
+        for(int j = 0 ; j < m ; j++){
+            //追加字符，缩小区间
+            while(j + matched < m){
+                char c = candidate.charAt(j + matched);
+                int from = this.charBound(low,high,matched,c);
+                int to = this.charBound(from,high,matched,c + 1);
+                if(from == to){
+                    break;
+                }
+                low = from;
+                high = to;
+                matched++;
+            }
+            if(matched > maxLen){
+                maxLen = matched;
+                start = j;
+            }
+            if(matched == m - j){
+                //剩余的匹配只会更短
+                break;
+            }
+            //去掉首字符，扩大区间
+            if(matched <= 1){
+                matched = 0;
+                low = 0;
+                high = n;
+            }else{
+                matched--;
+                int r = this.rank[this.sa[low] + 1];
+                low = this.leftBound(r,matched);
+                high = this.rightBound(r,matched);
+            }
+        }
+        return candidate.subSequence(start,start + maxLen).toString();
+    }
+
+    /**
+     * 在前offset个字符相同的后缀区间[low,high)中，二分查找第offset个字符不小于c的第一个后缀
+     * 后缀长度等于offset(没有第offset个字符)时视为最小。
+     */
+    private int charBound(int low,int high,int offset,int c){
+        while(low < high){
+            int middle = (low + high) >>> 1;
+            int pos = this.sa[middle] + offset;
+            if(pos == this.text.length || this.text[pos] < c){
+                low = middle + 1;
+            }else{
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 包含后缀数组下标r、且与sa[r]的公共前缀不小于len的区间左边界：最大的i(i不大于r)满足lcp[i]小于len
+     */
+    private int leftBound(int r,int len){
+        int node = this.leaves + r;
+        if(this.lcpTree[node] < len){
+            return r;
+        }
+        //向上找到左侧存在小于len的兄弟子树，lcp[0]=0保证存在
+        while((node & 1) == 0 || this.lcpTree[node - 1] >= len){
+            node >>= 1;
+        }
+        node--;
+        //向下优先进入右子树
+        while(node < this.leaves){
+            node = this.lcpTree[2 * node + 1] < len ? 2 * node + 1 : 2 * node;
+        }
+        return node - this.leaves;
+    }
+
+    /**
+     * 包含后缀数组下标r、且与sa[r]的公共前缀不小于len的区间右边界(不包含)：最小的i(i大于r)满足lcp[i]小于len，不存在时为n
+     */
+    private int rightBound(int r,int len){
+        int node = this.leaves + r;
+        //向上找到右侧存在小于len的兄弟子树，超出文本长度的叶子为-1
+        while(node > 1 && ((node & 1) == 1 || this.lcpTree[node + 1] >= len)){
+            node >>= 1;
+        }
+        if(node == 1){
+            return this.text.length;
+        }
+        node++;
+        //向下优先进入左子树
+        while(node < this.leaves){
+            node = this.lcpTree[2 * node] < len ? 2 * node : 2 * node + 1;
+        }
+        return Math.min(node - this.leaves,this.text.length);
+    }
+
+    /**
+     * 二分查找第一个不小于模式串的后缀(以模式串开头视为相等)
+     */
+    private int lowerBound(CharSequence pattern){
+        int low = 0;
+        int high = this.sa.length;
+        while(low < high){
+            int middle = (low + high) >>> 1;
+            if(this.compare(this.sa[middle],pattern) < 0){
+                low = middle + 1;
+            }else{
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 二分查找第一个大于模式串且不以模式串开头的后缀
+     */
+    private int upperBound(CharSequence pattern){
+        int low = 0;
+        int high = this.sa.length;
+        while(low < high){
+            int middle = (low + high) >>> 1;
+            if(this.compare(this.sa[middle],pattern) <= 0){
+                low = middle + 1;
+            }else{
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 比较后缀与模式串
+     * @param pos 后缀起始位置
+     * @param pattern 模式串
+     * @return 后缀以模式串开头返回0；后缀较小返回负数；否则返回正数。
+     */
+    private int compare(int pos,CharSequence pattern){
+        int m = pattern.length();
+        for(int d = 0 ; d < m ; d++){
+            if(pos + d == this.text.length){
+                //后缀是模式串的真前缀
+                return -1;
+            }
+            int diff = this.text[pos + d] - pattern.charAt(d);
+            if(diff != 0){
+                return diff;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 出现过的字符按大小编号为1~σ，编号表按文本的字符范围[min,max]分配
+     * @param text 文本
+     * @param s 编号结果(末尾哨兵保持为0)
+     * @return σ
+     */
+    private static int ranks(char[] text,int[] s){
+        if(text.length == 0){
+            return 0;
+        }
+        char min = Character.MAX_VALUE;
+        char max = Character.MIN_VALUE;
+        for(char c : text){
+            min = c < min ? c : min;
+            max = c > max ? c : max;
+        }
+        int[] rank = new int[max - min + 1];
+        for(char c : text){
+            rank[c - min] = 1;
+        }
+        int sigma = 0;
+        for(int c = 0 ; c < rank.length ; c++){
+            if(rank[c] != 0){
+                rank[c] = ++sigma;
+            }
+        }
+        for(int i = 0 ; i < text.length ; i++){
+            s[i] = rank[text[i] - min];
+        }
+        return sigma;
+    }
+
+    /**
+     * 构建后缀数组
+     * @param s 文本，最后一个元素为唯一的最小值0
+     * @param k 字母表大小
+     * @return 后缀数组(第一个元素为哨兵后缀)
+     */
+    private static int[] suffixArray(int[] s,int k){
+        int[] sa = new int[s.length];
+        if(s.length > 1){
+            sais(s,sa,s.length,k);
+        }
+        return sa;
+    }
+
+    /**
+     * SA-IS
+     * @param s 文本，最后一个元素为唯一的最小值0
+     * @param sa 后缀数组
+     * @param n 文本长度
+     * @param k 字母表大小
+     */
+    private static void sais(int[] s,int[] sa,int n,int k){
+        //S型为true，L型为false
+        boolean[] t = new boolean[n];
+        t[n-1] = true;
+        for(int i = n-2 ; i >= 0 ; i--){
+            t[i] = s[i] < s[i+1] || (s[i] == s[i+1] && t[i+1]);
+        }
+        int[] bucket = new int[k];
+        //1、LMS位置放入各自桶的末尾，诱导排序得到有序的LMS子串
+        buckets(s,bucket,n,k,true);
+        Arrays.fill(sa,-1);
+        for(int i = 1 ; i < n ; i++){
+            if(isLms(t,i)){
+                sa[--bucket[s[i]]] = i;
+            }
+        }
+        induce(s,sa,t,bucket,n,k);
+        //2、有序的LMS子串依次命名，相同的子串名称相同
+        int n1 = 0;
+        for(int i = 0 ; i < n ; i++){
+            if(isLms(t,sa[i])){
+                sa[n1++] = sa[i];
+            }
+        }
+        Arrays.fill(sa,n1,n,-1);
+        int name = 0;
+        int prev = -1;
+        for(int i = 0 ; i < n1 ; i++){
+            int pos = sa[i];
+            boolean diff = false;
+            for(int d = 0 ; ; d++){
+                if(prev == -1 || s[pos+d] != s[prev+d] || t[pos+d] != t[prev+d]){
+                    diff = true;
+                    break;
+                }
+                if(d > 0 && (isLms(t,pos+d) || isLms(t,prev+d))){
+                    break;
+                }
+            }
+            if(diff){
+                name++;
+                prev = pos;
+            }
+            //LMS位置互不相邻，pos/2互不相同
+            sa[n1 + (pos >> 1)] = name - 1;
+        }
+        //按文本顺序取出名称，组成缩减文本
+        int[] s1 = new int[n1];
+        for(int i = n1, j = 0 ; i < n ; i++){
+            if(sa[i] >= 0){
+                s1[j++] = sa[i];
+            }
+        }
+        int[] sa1 = new int[n1];
+        if(name < n1){
+            //名称不唯一，递归
+            sais(s1,sa1,n1,name);
+        }else{
+            for(int i = 0 ; i < n1 ; i++){
+                sa1[s1[i]] = i;
+            }
+        }
+        //3、有序的LMS后缀放入各自桶的末尾，诱导排序全部后缀
+        for(int i = 1, j = 0 ; i < n ; i++){
+            if(isLms(t,i)){
+                s1[j++] = i;
+            }
+        }
+        for(int i = 0 ; i < n1 ; i++){
+            sa1[i] = s1[sa1[i]];
+        }
+        buckets(s,bucket,n,k,true);
+        Arrays.fill(sa,-1);
+        for(int i = n1-1 ; i >= 0 ; i--){
+            int j = sa1[i];
+            sa[--bucket[s[j]]] = j;
+        }
+        induce(s,sa,t,bucket,n,k);
+    }
+
+    /**
+     * 诱导排序：从左到右放置L型后缀，再从右到左放置S型后缀
+     */
+    private static void induce(int[] s,int[] sa,boolean[] t,int[] bucket,int n,int k){
+        buckets(s,bucket,n,k,false);
+        for(int i = 0 ; i < n ; i++){
+            int j = sa[i] - 1;
+            if(j >= 0 && !t[j]){
+                sa[bucket[s[j]]++] = j;
+            }
+        }
+        buckets(s,bucket,n,k,true);
+        for(int i = n-1 ; i >= 0 ; i--){
+            int j = sa[i] - 1;
+            if(j >= 0 && t[j]){
+                sa[--bucket[s[j]]] = j;
+            }
+        }
+    }
+
+    /**
+     * 计算各字符桶的起始或终止位置
+     * @param end true为终止位置(不包含)；false为起始位置
+     */
+    private static void buckets(int[] s,int[] bucket,int n,int k,boolean end){
+        Arrays.fill(bucket,0);
+        for(int i = 0 ; i < n ; i++){
+            bucket[s[i]]++;
+        }
+        int sum = 0;
+        for(int c = 0 ; c < k ; c++){
+            sum += bucket[c];
+            bucket[c] = end ? sum : sum - bucket[c];
+        }
+    }
+
+    /**
+     * 是否为LMS位置：S型且左侧为L型
+     */
+    private static boolean isLms(boolean[] t,int i){
+        return i > 0 && t[i] && !t[i-1];
+    }
+
+    /**
+     * Kasai算法构建LCP数组
+     * @param s 文本(含哨兵)
+     * @param sa 后缀数组(不含哨兵)
+     * @param rank 后缀数组的逆
+     * @return LCP数组
+     */
+    private static int[] kasai(int[] s,int[] sa,int[] rank){
+        int n = sa.length;
+        int[] lcp = new int[n];
+        int h = 0;
+        for(int i = 0 ; i < n ; i++){
+            if(rank[i] == 0){
+                h = 0;
+                continue;
+            }
+            int j = sa[rank[i] - 1];
+            //哨兵唯一，比较必然在越界前终止
+            while(s[i+h] == s[j+h]){
+                h++;
+            }
+            lcp[rank[i]] = h;
+            if(h > 0){
+                h--;
+            }
+        }
+        return lcp;
+    }
+}